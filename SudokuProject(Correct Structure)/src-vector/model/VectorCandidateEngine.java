@@ -0,0 +1,140 @@
+package model;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * Candidate engine on the Vector API, one lane per cell of a unit.
+ *
+ * Unit candidates split a unit into box-wide segments: the cells of a row within
+ * one stack share their row and box masks, and their column masks lie next to each
+ * other in the board's mask array, so each segment is one contiguous (masked) load
+ * ORed with one broadcast; columns and boxes split the same way. This avoids gather
+ * loads, which C2 miscompiled into crashes on JDK 21.0.1.
+ * Grid validation widens a row of values into lanes of digit bits and ORs them into
+ * the row, column and box masks; boxes are collected one band of rows at a time,
+ * and a row that is not a multiple of the lane count long ends with a masked step.
+ *
+ * Kept in its own source root so that only this class needs
+ * {@code --add-modules jdk.incubator.vector} to compile. Loaded by name from
+ * {@link CandidateEngine#vector()} once that has checked the module is present.
+ */
+final class VectorCandidateEngine implements CandidateEngine {
+
+    static final VectorCandidateEngine INSTANCE = new VectorCandidateEngine();
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    // As many int lanes as LONGS has long lanes, for loading grid rows and widening them.
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+    private static final int LANES = LONGS.length();
+
+    private VectorCandidateEngine() {
+    }
+
+    @Override
+    public void unitCandidates(SudokuBoard board, int unit, long[] target) {
+        board.validateUnit(unit, target);
+        SudokuBoard.Geometry g = board.geometry;
+        long[] masks = board.unitMasks;
+        int size = g.size;
+        int boxSize = g.boxSize;
+        int index = unit % size;
+
+        for (int segment = 0; segment < boxSize; segment++) {
+            // Mask shared by the segment's cells, and where the masks that vary along it start.
+            long shared;
+            int run;
+            if (unit < size) {          // row: one segment per stack, column masks vary
+                shared = masks[index] | masks[2 * size + (index / boxSize) * boxSize + segment];
+                run = size + segment * boxSize;
+            } else if (unit < 2 * size) { // column: one segment per band, row masks vary
+                shared = masks[size + index] | masks[2 * size + segment * boxSize + index / boxSize];
+                run = segment * boxSize;
+            } else {                    // box: one segment per row of the box, column masks vary
+                shared = masks[(index / boxSize) * boxSize + segment] | masks[2 * size + index];
+                run = size + (index % boxSize) * boxSize;
+            }
+            for (int offset = 0; offset < boxSize; offset += LANES) {
+                VectorMask<Long> inSegment = LONGS.indexInRange(offset, boxSize);
+                LongVector.fromArray(LONGS, masks, run + offset, inSegment)
+                        .or(shared)
+                        .not()
+                        .and(g.allDigits)
+                        .intoArray(target, segment * boxSize + offset, inSegment);
+            }
+        }
+        int base = unit * size;
+        for (int position = 0; position < size; position++) {
+            if (board.cells[g.unitCells[base + position]] != 0) {
+                target[position] = 0;
+            }
+        }
+    }
+
+    @Override
+    public boolean isSolution(int[][] grid) {
+        SudokuBoard.Geometry g = SudokuBoard.geometryForSide(grid == null ? 0 : grid.length);
+        int size = g.size;
+        int boxSize = g.boxSize;
+        long[] columns = new long[size];
+        long[] band = new long[size];   // per column, the digits seen in the current band
+        LongVector ones = LongVector.broadcast(LONGS, 1L);
+
+        for (int row = 0; row < size; row++) {
+            int[] values = grid[row];
+            if (values == null || values.length != size) {
+                return false;
+            }
+            if (row % boxSize == 0) {
+                Arrays.fill(band, 0);
+            }
+            long seen = 0;
+            for (int col = 0; col < size; col += LANES) {
+                VectorMask<Integer> valuesInRange = INTS.indexInRange(col, size);
+                VectorMask<Long> inRange = LONGS.indexInRange(col, size);
+                IntVector digits = IntVector.fromArray(INTS, values, col, valuesInRange);
+                if (digits.compare(VectorOperators.LT, 1, valuesInRange)
+                        .or(digits.compare(VectorOperators.GT, size, valuesInRange)).anyTrue()) {
+                    return false;
+                }
+                LongVector shifts = (LongVector) digits.sub(1).convertShape(VectorOperators.I2L, LONGS, 0);
+                LongVector bits = ones.lanewise(VectorOperators.LSHL, shifts);
+                seen |= bits.reduceLanes(VectorOperators.OR, inRange);
+                LongVector.fromArray(LONGS, columns, col, inRange).or(bits).intoArray(columns, col, inRange);
+                LongVector.fromArray(LONGS, band, col, inRange).or(bits).intoArray(band, col, inRange);
+            }
+            // A full row of size values covers all size digits only if none repeats.
+            if (seen != g.allDigits) {
+                return false;
+            }
+            if (row % boxSize == boxSize - 1) {
+                for (int stack = 0; stack < size; stack += boxSize) {
+                    long box = 0;
+                    for (int col = stack; col < stack + boxSize; col++) {
+                        box |= band[col];
+                    }
+                    if (box != g.allDigits) {
+                        return false;
+                    }
+                }
+            }
+        }
+        for (int col = 0; col < size; col += LANES) {
+            VectorMask<Long> inRange = LONGS.indexInRange(col, size);
+            if (LongVector.fromArray(LONGS, columns, col, inRange)
+                    .compare(VectorOperators.NE, g.allDigits, inRange).anyTrue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,129 @@
+package experiment;
+
+import model.CellPosition;
+import model.SudokuBoard;
+import solver.CellSelectionStrategy;
+import solver.FirstEmptyCellStrategy;
+import solver.MinimumRemainingValuesStrategy;
+import solver.PropagatingSudokuSolver;
+import solver.SearchStatistics;
+import solver.tasks.SolveTask;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * Checks that the backtracking hot path allocates nothing per search node, using
+ * the JVM's per-thread allocation counter
+ * ({@code com.sun.management.ThreadMXBean#getThreadAllocatedBytes}).
+ *
+ * Each puzzle is solved by {@link SolveTask} with no parallel levels, i.e. by the
+ * sequential search that {@code ParallelSudokuSolver} runs below its split depth,
+ * once per cell selection strategy, and by {@link PropagatingSudokuSolver}. A
+ * solve allocates a fixed amount up front (task, trail, statistics, scratch), so
+ * the check is that the bytes per solve do not grow with the node count: every
+ * puzzle must allocate the same. The searches are
+ * warmed up first so that the measured pass runs compiled code. Also checks that
+ * {@link CellPosition#of} hands out cached instances. Exits with status 1 on failure.
+ */
+public class AllocationCheck {
+
+    private static final int PUZZLES = 10;
+    private static final int WARMUP_ROUNDS = 300;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private boolean failed;
+
+    public void run() {
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            System.out.println("This JVM cannot measure per-thread allocation; nothing checked.");
+            return;
+        }
+        SudokuBoard[] puzzles = LargeBoardExperiment.generatePuzzles(SudokuBoard.SUBGRID_SIZE, 0.40, PUZZLES, 3L);
+
+        checkSearch("first empty cell", solveTask(new FirstEmptyCellStrategy()), puzzles);
+        checkSearch("minimum remaining values", solveTask(new MinimumRemainingValuesStrategy()), puzzles);
+        checkSearch("propagation", new PropagatingSudokuSolver()::solve, puzzles);
+        checkCellPositions();
+
+        System.out.println(failed ? "\nFAILED" : "\nAll allocation checks passed.");
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private void checkSearch(String name, BiConsumer<SudokuBoard, SearchStatistics> solver, SudokuBoard[] puzzles) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (SudokuBoard puzzle : puzzles) {
+                solver.accept(puzzle.clone(), new SearchStatistics());
+            }
+        }
+
+        // Copies made up front, so that the measured solves only allocate what the search does.
+        SudokuBoard[] boards = new SudokuBoard[puzzles.length];
+        SearchStatistics[] statistics = new SearchStatistics[puzzles.length];
+        for (int i = 0; i < puzzles.length; i++) {
+            boards[i] = puzzles[i].clone();
+            statistics[i] = new SearchStatistics();
+        }
+        long[] bytes = new long[puzzles.length];
+        // What reading the counter itself costs, taken off each measurement.
+        long probe = allocatedBytes();
+        long overhead = allocatedBytes() - probe;
+        for (int i = 0; i < boards.length; i++) {
+            long before = allocatedBytes();
+            solver.accept(boards[i], statistics[i]);
+            bytes[i] = allocatedBytes() - before - overhead;
+        }
+
+        int fewest = 0;
+        int most = 0;
+        for (int i = 1; i < boards.length; i++) {
+            fewest = statistics[i].getNodeCount() < statistics[fewest].getNodeCount() ? i : fewest;
+            most = statistics[i].getNodeCount() > statistics[most].getNodeCount() ? i : most;
+        }
+        long extraNodes = statistics[most].getNodeCount() - statistics[fewest].getNodeCount();
+        double bytesPerNode = extraNodes == 0 ? 0 : (double) (bytes[most] - bytes[fewest]) / extraNodes;
+        boolean constant = true;
+        for (long solveBytes : bytes) {
+            constant &= solveBytes == bytes[0];
+        }
+
+        System.out.printf("%-26s nodes %6d..%-8d bytes/solve %6d..%-6d bytes/node %.3f  %s%n", name,
+                statistics[fewest].getNodeCount(), statistics[most].getNodeCount(),
+                Arrays.stream(bytes).min().getAsLong(), Arrays.stream(bytes).max().getAsLong(),
+                bytesPerNode, constant ? "ok" : "ALLOCATES PER NODE");
+        failed |= !constant;
+    }
+
+    private static BiConsumer<SudokuBoard, SearchStatistics> solveTask(CellSelectionStrategy strategy) {
+        return (board, statistics) -> new SolveTask(board, 0, new AtomicBoolean(false), strategy, statistics).invoke();
+    }
+
+    private void checkCellPositions() {
+        int side = SudokuBoard.MAX_BOX_SIZE * SudokuBoard.MAX_BOX_SIZE;
+        boolean shared = true;
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                CellPosition position = CellPosition.of(row, column);
+                shared &= position == CellPosition.of(row, column)
+                        && position.withRow(row) == position
+                        && position.withColumn(column) == position;
+            }
+        }
+        System.out.printf("%-26s %s%n", "CellPosition.of", shared ? "ok" : "NOT CACHED");
+        failed |= !shared;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+
+    public static void main(String[] args) {
+        new AllocationCheck().run();
+    }
+}
@@ -0,0 +1,126 @@
+package experiment;
+
+import model.SudokuBoard;
+
+/**
+ * Compares the checked public board API with the unchecked one the solvers use
+ * ({@link SudokuBoard#setValueAtUnchecked} and friends), on the same first-empty-cell
+ * backtracking search written once against each. Every pass solves each puzzle and
+ * then clears the cells it filled, so the boards are reused without copying.
+ */
+public class BoardAccessBenchmark {
+
+    private static final int[] BOX_SIZES = {3, 4};
+
+    // Fraction of givens per box size: enough that a pass takes milliseconds, not seconds.
+    private static final double[] GIVENS = {0.40, 0.65};
+
+    private static final int PUZZLES = 10;
+    private static final int WARMUP_ROUNDS = 500;
+    private static final int TIMED_ROUNDS = 2_000;
+
+    private long nodes;
+
+    public void run() {
+        System.out.printf("%-8s %14s %14s %9s%n", "Board", "Checked", "Unchecked", "Speedup");
+        for (int i = 0; i < BOX_SIZES.length; i++) {
+            int side = BOX_SIZES[i] * BOX_SIZES[i];
+            SudokuBoard[] puzzles = LargeBoardExperiment.generatePuzzles(BOX_SIZES[i], GIVENS[i], PUZZLES, 5L);
+            int[][] emptyCells = new int[puzzles.length][];
+            for (int p = 0; p < puzzles.length; p++) {
+                emptyCells[p] = emptyCells(puzzles[p]);
+            }
+
+            // Interleaved so that neither variant runs on a machine warmed up by the other alone.
+            long checked = 0;
+            long unchecked = 0;
+            for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+                long start = System.nanoTime();
+                pass(puzzles, emptyCells, true);
+                long middle = System.nanoTime();
+                pass(puzzles, emptyCells, false);
+                long end = System.nanoTime();
+                if (round >= WARMUP_ROUNDS) {
+                    checked += middle - start;
+                    unchecked += end - middle;
+                }
+            }
+            long nodesPerPass = nodesPerPass(puzzles, emptyCells);
+            double checkedNanos = (double) checked / TIMED_ROUNDS / nodesPerPass;
+            double uncheckedNanos = (double) unchecked / TIMED_ROUNDS / nodesPerPass;
+            System.out.printf("%-8s %9.2f ns/node %6.2f ns/node %8.2fx%n", side + "x" + side,
+                    checkedNanos, uncheckedNanos, checkedNanos / uncheckedNanos);
+        }
+    }
+
+    private void pass(SudokuBoard[] puzzles, int[][] emptyCells, boolean checked) {
+        for (int p = 0; p < puzzles.length; p++) {
+            SudokuBoard board = puzzles[p];
+            if (!(checked ? searchChecked(board) : searchUnchecked(board))) {
+                throw new IllegalStateException("Puzzle " + p + " was not solved.");
+            }
+            for (int cell : emptyCells[p]) {
+                board.clearCellAt(cell);
+            }
+        }
+    }
+
+    private long nodesPerPass(SudokuBoard[] puzzles, int[][] emptyCells) {
+        nodes = 0;
+        pass(puzzles, emptyCells, true);
+        return nodes;
+    }
+
+    private boolean searchChecked(SudokuBoard board) {
+        nodes++;
+        int cell = board.findNextEmptyCellIndex();
+        if (cell < 0) {
+            return true;
+        }
+        long candidates = board.candidatesMaskAt(cell);
+        while (candidates != 0) {
+            int digit = Long.numberOfTrailingZeros(candidates) + 1;
+            candidates &= candidates - 1;
+            board.setValueAt(cell, digit);
+            if (searchChecked(board)) {
+                return true;
+            }
+        }
+        board.clearCellAt(cell);
+        return false;
+    }
+
+    private boolean searchUnchecked(SudokuBoard board) {
+        nodes++;
+        int cell = board.findNextEmptyCellIndex();
+        if (cell < 0) {
+            return true;
+        }
+        long candidates = board.candidatesMaskAtUnchecked(cell);
+        while (candidates != 0) {
+            int digit = Long.numberOfTrailingZeros(candidates) + 1;
+            candidates &= candidates - 1;
+            board.setValueAtUnchecked(cell, digit);
+            if (searchUnchecked(board)) {
+                return true;
+            }
+        }
+        board.clearCellAtUnchecked(cell);
+        return false;
+    }
+
+    private static int[] emptyCells(SudokuBoard board) {
+        int[] cells = new int[board.getEmptyCellCount()];
+        int count = 0;
+        for (int index = 0; index < board.getCellCount(); index++) {
+            if (board.getValueAt(index) == 0) {
+                cells[count++] = index;
+            }
+        }
+        return cells;
+    }
+
+    public static void main(String[] args) {
+        new BoardAccessBenchmark().run();
+    }
+}
@@ -0,0 +1,96 @@
+package experiment;
+
+import model.CandidateEngine;
+import model.SudokuBoard;
+
+import java.util.Optional;
+
+/**
+ * Compares the scalar and vector {@link CandidateEngine}s per board size on the two
+ * bulk operations: candidates of every unit of a half-filled board, and validation
+ * of a complete grid. Run with {@code src-vector} compiled in and
+ * {@code --add-modules jdk.incubator.vector}; otherwise only the scalar engine is measured.
+ */
+public class CandidateEngineBenchmark {
+
+    private static final int[] BOX_SIZES = {3, 4, 5, 6};
+
+    private static final int BOARDS_PER_SIZE = 8;
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int TIMED_ROUNDS = 50_000;
+
+    // Folded into the output so the JIT cannot drop the measured work.
+    private long checksum;
+
+    public void run() {
+        CandidateEngine scalar = CandidateEngine.scalar();
+        Optional<CandidateEngine> vector = CandidateEngine.vector();
+        System.out.println("Vector engine: " + (vector.isPresent() ? "available" : "not loaded (scalar only)") + "\n");
+        System.out.printf("%-8s %-16s %14s %14s %9s%n", "Board", "Operation", "Scalar", "Vector", "Speedup");
+
+        for (int boxSize : BOX_SIZES) {
+            int side = boxSize * boxSize;
+            // Boards with 36 digits are slow to fill with the randomized solver, so 36x36 uses fewer.
+            int count = boxSize == 6 ? 2 : BOARDS_PER_SIZE;
+            SudokuBoard[] solutions = LargeBoardExperiment.generatePuzzles(boxSize, 1.0, count, 7L);
+            SudokuBoard[] puzzles = LargeBoardExperiment.generatePuzzles(boxSize, 0.5, count, 11L);
+            int[][][] grids = new int[count][][];
+            for (int i = 0; i < count; i++) {
+                grids[i] = solutions[i].toArray();
+            }
+
+            double scalarCandidates = nanosPerBoard(() -> unitCandidates(scalar, puzzles), count);
+            double scalarSolution = nanosPerBoard(() -> isSolution(scalar, grids), count);
+            double vectorCandidates = vector.map(e -> nanosPerBoard(() -> unitCandidates(e, puzzles), count)).orElse(Double.NaN);
+            double vectorSolution = vector.map(e -> nanosPerBoard(() -> isSolution(e, grids), count)).orElse(Double.NaN);
+
+            String board = side + "x" + side;
+            print(board, "unit candidates", scalarCandidates, vectorCandidates);
+            print(board, "isSolution", scalarSolution, vectorSolution);
+        }
+        System.out.println("\n(checksum " + checksum + ")");
+    }
+
+    private void unitCandidates(CandidateEngine engine, SudokuBoard[] boards) {
+        long[] target = new long[boards[0].getSize()];
+        for (SudokuBoard board : boards) {
+            for (int unit = 0; unit < board.getUnitCount(); unit++) {
+                engine.unitCandidates(board, unit, target);
+                checksum += target[unit % target.length];
+            }
+        }
+    }
+
+    private void isSolution(CandidateEngine engine, int[][][] grids) {
+        for (int[][] grid : grids) {
+            if (engine.isSolution(grid)) {
+                checksum++;
+            }
+        }
+    }
+
+    // Average nanoseconds per board of one pass of {@code pass} over {@code boards} boards.
+    private static double nanosPerBoard(Runnable pass, int boards) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            pass.run();
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < TIMED_ROUNDS; round++) {
+            pass.run();
+        }
+        return (double) (System.nanoTime() - start) / TIMED_ROUNDS / boards;
+    }
+
+    private static void print(String board, String operation, double scalarNanos, double vectorNanos) {
+        if (Double.isNaN(vectorNanos)) {
+            System.out.printf("%-8s %-16s %11.0f ns %14s %9s%n", board, operation, scalarNanos, "-", "-");
+        } else {
+            System.out.printf("%-8s %-16s %11.0f ns %11.0f ns %8.2fx%n", board, operation, scalarNanos, vectorNanos,
+                    scalarNanos / vectorNanos);
+        }
+    }
+
+    public static void main(String[] args) {
+        new CandidateEngineBenchmark().run();
+    }
+}
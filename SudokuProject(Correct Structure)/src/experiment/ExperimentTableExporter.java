@@ -9,13 +9,18 @@ public class ExperimentTableExporter {
     public void exportCSV(List<ResultRecord> results, String filename) {
         try {
             PrintWriter writer = new PrintWriter(new FileWriter(filename));
-            writer.println("Puzzle,Difficulty,Sequential(ms),Parallel(ms),Speedup");
+            writer.println("Puzzle,Difficulty,Sequential(ms),Parallel(ms),Speedup,FirstEmptyNodes,MrvNodes,NodeReduction,Propagating(ms),PropagatingNodes,RandomP50Nodes,RandomP99Nodes,RestartP50Nodes,RestartP99Nodes");
 
             for (int i = 0; i < results.size(); i++) {
                 ResultRecord r = results.get(i);
                 writer.println(r.puzzleName + "," + r.difficulty + "," +
                                r.sequentialTime + "," + r.parallelTime + "," +
-                               r.getSpeedup());
+                               r.getSpeedup() + "," +
+                               r.firstEmptyNodes + "," + r.mrvNodes + "," +
+                               r.getNodeReduction() + "," +
+                               r.propagatingTime + "," + r.propagatingNodes + "," +
+                               r.randomP50Nodes + "," + r.randomP99Nodes + "," +
+                               r.restartP50Nodes + "," + r.restartP99Nodes);
             }
             writer.close();
         } catch (IOException e) {
@@ -29,20 +34,37 @@ public class ExperimentTableExporter {
             PrintWriter writer = new PrintWriter(new FileWriter(filename));
             long totalSeq = 0;
             long totalPar = 0;
+            long totalFirstEmptyNodes = 0;
+            long totalMrvNodes = 0;
+            long totalProp = 0;
+            long worstRandomP99 = 0;
+            long worstRestartP99 = 0;
 
             for (int i = 0; i < results.size(); i++) {
                 ResultRecord r = results.get(i);
                 totalSeq += r.sequentialTime;
                 totalPar += r.parallelTime;
+                totalFirstEmptyNodes += r.firstEmptyNodes;
+                totalMrvNodes += r.mrvNodes;
+                totalProp += r.propagatingTime;
+                worstRandomP99 = Math.max(worstRandomP99, r.randomP99Nodes);
+                worstRestartP99 = Math.max(worstRestartP99, r.restartP99Nodes);
             }
 
             double avgSeq = (double) totalSeq / results.size();
             double avgPar = (double) totalPar / results.size();
+            double avgProp = (double) totalProp / results.size();
 
             writer.println("=== Experiment Summary ===");
             writer.println("Average Sequential Time: " + avgSeq + " ms");
             writer.println("Average Parallel Time:   " + avgPar + " ms");
+            writer.println("Average Propagating Time: " + avgProp + " ms");
             writer.println("Average Speedup:         " + (avgSeq / avgPar));
+            writer.println("Total Nodes (first-empty): " + totalFirstEmptyNodes);
+            writer.println("Total Nodes (MRV):         " + totalMrvNodes);
+            writer.println("Node Reduction:            " + ((double) totalFirstEmptyNodes / totalMrvNodes) + "x");
+            writer.println("Worst p99 Nodes (randomized, no restarts): " + worstRandomP99);
+            writer.println("Worst p99 Nodes (Luby restarts):           " + worstRestartP99);
             writer.close();
         } catch (IOException e) {
             e.printStackTrace();
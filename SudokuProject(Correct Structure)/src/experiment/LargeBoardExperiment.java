@@ -0,0 +1,125 @@
+package experiment;
+
+import model.SudokuBoard;
+import solver.CancellationToken;
+import solver.CubeAndConquerSudokuSolver;
+import solver.ParallelSudokuSolver;
+import solver.PropagatingSudokuSolver;
+import solver.RestartingSudokuSolver;
+import solver.SearchStatistics;
+import solver.SequentialSudokuSolver;
+import solver.SolveResult;
+import solver.SolveStatus;
+import solver.SudokuSolver;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * Times the solvers on generated 9x9, 16x16 and 25x25 puzzles and reports the
+ * speedup of the parallel solvers over sequential backtracking per board size.
+ *
+ * Puzzles are made by filling an empty board with the randomized solver and
+ * clearing cells at random, so they are reproducible from the seed but not
+ * necessarily unique. Solve times are heavy-tailed (most random puzzles fall
+ * at once, a few take seconds), so the total over all puzzles is reported
+ * rather than a median. Every solve is capped at {@link #SOLVE_TIMEOUT}; a
+ * capped solve counts with the full timeout and is listed as stopped.
+ */
+public class LargeBoardExperiment {
+
+    private static final int[] BOX_SIZES = {3, 4, 5};
+
+    // Fraction of cells kept as givens: about as few as each size allows before
+    // most puzzles run into the timeout.
+    private static final double[] GIVENS = {0.30, 0.40, 0.60};
+
+    private static final int PUZZLES_PER_SIZE = 10;
+
+    private static final Duration SOLVE_TIMEOUT = Duration.ofSeconds(10);
+
+    public void run() {
+        System.out.println("Starting large board experiments...");
+        System.out.println("Parallelism: " + Runtime.getRuntime().availableProcessors() + " processors\n");
+
+        for (int i = 0; i < BOX_SIZES.length; i++) {
+            int boxSize = BOX_SIZES[i];
+            int side = boxSize * boxSize;
+            SudokuBoard[] puzzles = generatePuzzles(boxSize, GIVENS[i], PUZZLES_PER_SIZE, 42L);
+
+            SudokuSolver[] solvers = {
+                    new SequentialSudokuSolver(),
+                    new PropagatingSudokuSolver(),
+                    new ParallelSudokuSolver(),
+                    new CubeAndConquerSudokuSolver()
+            };
+            System.out.println(side + "x" + side + " (" + puzzles.length + " puzzles, "
+                    + Math.round(GIVENS[i] * 100) + "% givens)");
+            double sequentialMillis = 0;
+            for (SudokuSolver solver : solvers) {
+                solveAll(solver, puzzles); // warm-up
+                Timing timing = solveAll(solver, puzzles);
+                if (solver instanceof SequentialSudokuSolver) {
+                    sequentialMillis = timing.totalMillis;
+                }
+                System.out.printf("  %-28s %10.1f ms  %5.2fx  (stopped: %d)%n",
+                        solver.getClass().getSimpleName(), timing.totalMillis,
+                        sequentialMillis / timing.totalMillis, timing.stopped);
+            }
+            System.out.println();
+        }
+        System.out.println("All large board experiments completed!");
+    }
+
+    /**
+     * Builds {@code count} puzzles of box order {@code boxSize}: a random complete grid
+     * per puzzle with all but a {@code givens} fraction of its cells cleared.
+     */
+    public static SudokuBoard[] generatePuzzles(int boxSize, double givens, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        SudokuBoard[] puzzles = new SudokuBoard[count];
+        for (int p = 0; p < count; p++) {
+            SudokuBoard grid = SudokuBoard.empty(boxSize);
+            if (!new RestartingSudokuSolver(random.nextLong()).solve(grid, new SearchStatistics())) {
+                throw new IllegalStateException("Could not fill an empty " + grid.getSize() + "x" + grid.getSize() + " board.");
+            }
+            for (int cell = 0; cell < grid.getCellCount(); cell++) {
+                if (random.nextDouble() >= givens) {
+                    grid.clearCellAt(cell);
+                }
+            }
+            puzzles[p] = grid;
+        }
+        return puzzles;
+    }
+
+    // Solves every puzzle once, each under its own SOLVE_TIMEOUT.
+    private static Timing solveAll(SudokuSolver solver, SudokuBoard[] puzzles) {
+        Timing timing = new Timing();
+        for (SudokuBoard puzzle : puzzles) {
+            int[][] board = puzzle.toArray();
+            long start = System.nanoTime();
+            SolveResult result = solver.solve(board, CancellationToken.withTimeout(SOLVE_TIMEOUT));
+            timing.totalMillis += (System.nanoTime() - start) / 1_000_000.0;
+            if (result.getStatus() == SolveStatus.SOLVED) {
+                if (!new SudokuBoard(board).isComplete()) {
+                    throw new IllegalStateException(solver.getClass().getSimpleName() + " returned an invalid solution.");
+                }
+            } else if (result.getStatus() == SolveStatus.UNSOLVABLE) {
+                throw new IllegalStateException(solver.getClass().getSimpleName() + " failed on a generated puzzle.");
+            } else {
+                timing.stopped++;
+            }
+        }
+        return timing;
+    }
+
+    private static final class Timing {
+        double totalMillis;
+        int stopped;
+    }
+
+    public static void main(String[] args) {
+        new LargeBoardExperiment().run();
+    }
+}
@@ -5,10 +5,24 @@ public class ResultRecord {
     public String difficulty;
     public long sequentialTime;
     public long parallelTime;
+    public long propagatingTime;
+    public long propagatingNodes;
+    public long firstEmptyNodes;
+    public long mrvNodes;
+    // Node count percentiles of randomized MRV over many seeds, without and with Luby restarts.
+    public long randomP50Nodes;
+    public long randomP99Nodes;
+    public long restartP50Nodes;
+    public long restartP99Nodes;
 
 
     public double getSpeedup() {
         if (parallelTime == 0) return 0;
         return (double) sequentialTime / parallelTime;
     }
+
+    public double getNodeReduction() {
+        if (mrvNodes == 0) return 0;
+        return (double) firstEmptyNodes / mrvNodes;
+    }
 }
@@ -1,16 +1,26 @@
 package experiment;
 
 import io.SudokuIO;
+import solver.CellSelectionStrategy;
+import solver.FirstEmptyCellStrategy;
+import solver.MinimumRemainingValuesStrategy;
+import solver.SearchStatistics;
 import solver.SudokuSolver;
 import solver.SequentialSudokuSolver;
 import solver.ParallelSudokuSolver;
+import solver.PropagatingSudokuSolver;
+import solver.RestartingSudokuSolver;
 import model.SudokuBoard;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class SudokuExperiment {
 
+    // Seeds per puzzle for the restart comparison.
+    private static final int RESTART_SEEDS = 100;
+
     public void run() {
         List<ResultRecord> results = new ArrayList<>();
         ExperimentTableExporter exporter = new ExperimentTableExporter();
@@ -40,18 +50,42 @@ public class SudokuExperiment {
                 boolean parSuccess = parSolver.solve(parBoard);
                 long endPar = System.currentTimeMillis();
 
+                PropagatingSudokuSolver propSolver = new PropagatingSudokuSolver();
+                SudokuBoard propBoard = board.clone();
+                SearchStatistics propStats = new SearchStatistics();
+                long startProp = System.currentTimeMillis();
+                boolean propSuccess = propSolver.solve(propBoard, propStats);
+                long endProp = System.currentTimeMillis();
+
                 ResultRecord r = new ResultRecord();
                 r.puzzleName = file;
                 r.difficulty = file.replace(".txt", "");
                 r.sequentialTime = endSeq - startSeq;
                 r.parallelTime = endPar - startPar;
+                r.propagatingTime = endProp - startProp;
+                r.propagatingNodes = propStats.getNodeCount();
+                r.firstEmptyNodes = countNodes(board, new FirstEmptyCellStrategy());
+                r.mrvNodes = countNodes(board, new MinimumRemainingValuesStrategy());
+
+                long[] randomNodes = countNodesPerSeed(board, RestartingSudokuSolver.NO_RESTARTS);
+                long[] restartNodes = countNodesPerSeed(board, RestartingSudokuSolver.DEFAULT_RESTART_UNIT);
+                r.randomP50Nodes = percentile(randomNodes, 50);
+                r.randomP99Nodes = percentile(randomNodes, 99);
+                r.restartP50Nodes = percentile(restartNodes, 50);
+                r.restartP99Nodes = percentile(restartNodes, 99);
 
                 results.add(r);
 
                 // Print results
                 System.out.println("  Sequential: " + r.sequentialTime + " ms (solved: " + seqSuccess + ")");
                 System.out.println("  Parallel:   " + r.parallelTime + " ms (solved: " + parSuccess + ")");
-                System.out.println("  Speedup:    " + String.format("%.2f", r.getSpeedup()) + "x\n");
+                System.out.println("  Propagating: " + r.propagatingTime + " ms (solved: " + propSuccess
+                        + ", " + r.propagatingNodes + " nodes)");
+                System.out.println("  Speedup:    " + String.format("%.2f", r.getSpeedup()) + "x");
+                System.out.println("  Nodes:      first-empty " + r.firstEmptyNodes + ", MRV " + r.mrvNodes
+                        + " (" + String.format("%.1f", r.getNodeReduction()) + "x fewer)");
+                System.out.println("  Restarts:   p50/p99 nodes " + r.randomP50Nodes + "/" + r.randomP99Nodes
+                        + " without, " + r.restartP50Nodes + "/" + r.restartP99Nodes + " with Luby restarts\n");
 
             } catch (Exception e) {
                 System.out.println("Error processing puzzle: " + file);
@@ -98,11 +132,29 @@ public class SudokuExperiment {
                 boolean parSuccess = parSolver.solve(parBoard);
                 long endPar = System.currentTimeMillis();
 
+                PropagatingSudokuSolver propSolver = new PropagatingSudokuSolver();
+                SudokuBoard propBoard = board.clone();
+                SearchStatistics propStats = new SearchStatistics();
+                long startProp = System.currentTimeMillis();
+                boolean propSuccess = propSolver.solve(propBoard, propStats);
+                long endProp = System.currentTimeMillis();
+
                 ResultRecord r = new ResultRecord();
                 r.puzzleName = file;
                 r.difficulty = file.replace(".txt", "");
                 r.sequentialTime = endSeq - startSeq;
                 r.parallelTime = endPar - startPar;
+                r.propagatingTime = endProp - startProp;
+                r.propagatingNodes = propStats.getNodeCount();
+                r.firstEmptyNodes = countNodes(board, new FirstEmptyCellStrategy());
+                r.mrvNodes = countNodes(board, new MinimumRemainingValuesStrategy());
+
+                long[] randomNodes = countNodesPerSeed(board, RestartingSudokuSolver.NO_RESTARTS);
+                long[] restartNodes = countNodesPerSeed(board, RestartingSudokuSolver.DEFAULT_RESTART_UNIT);
+                r.randomP50Nodes = percentile(randomNodes, 50);
+                r.randomP99Nodes = percentile(randomNodes, 99);
+                r.restartP50Nodes = percentile(restartNodes, 50);
+                r.restartP99Nodes = percentile(restartNodes, 99);
 
                 results.add(r);
 
@@ -111,7 +163,14 @@ public class SudokuExperiment {
                         .append(")\n");
                 output.append("  Parallel:   ").append(r.parallelTime).append(" ms (solved: ").append(parSuccess)
                         .append(")\n");
-                output.append("  Speedup:    ").append(String.format("%.2f", r.getSpeedup())).append("x\n\n");
+                output.append("  Propagating: ").append(r.propagatingTime).append(" ms (solved: ").append(propSuccess)
+                        .append(", ").append(r.propagatingNodes).append(" nodes)\n");
+                output.append("  Speedup:    ").append(String.format("%.2f", r.getSpeedup())).append("x\n");
+                output.append("  Nodes:      first-empty ").append(r.firstEmptyNodes).append(", MRV ").append(r.mrvNodes)
+                        .append(" (").append(String.format("%.1f", r.getNodeReduction())).append("x fewer)\n");
+                output.append("  Restarts:   p50/p99 nodes ").append(r.randomP50Nodes).append("/").append(r.randomP99Nodes)
+                        .append(" without, ").append(r.restartP50Nodes).append("/").append(r.restartP99Nodes)
+                        .append(" with Luby restarts\n\n");
 
             } catch (Exception e) {
                 output.append("Error processing puzzle: ").append(file).append("\n");
@@ -129,6 +188,31 @@ public class SudokuExperiment {
         return output.toString();
     }
 
+    // Search nodes the sequential solver visits on a copy of the puzzle with the given cell selection.
+    private long countNodes(SudokuBoard puzzle, CellSelectionStrategy cellSelection) {
+        SearchStatistics statistics = new SearchStatistics();
+        new SequentialSudokuSolver(cellSelection).solve(puzzle.clone(), statistics);
+        return statistics.getNodeCount();
+    }
+
+    // Search nodes of the randomized solver for seeds 0..RESTART_SEEDS-1, sorted ascending.
+    private long[] countNodesPerSeed(SudokuBoard puzzle, long restartUnit) {
+        long[] nodes = new long[RESTART_SEEDS];
+        for (int seed = 0; seed < RESTART_SEEDS; seed++) {
+            SearchStatistics statistics = new SearchStatistics();
+            new RestartingSudokuSolver(seed, restartUnit).solve(puzzle.clone(), statistics);
+            nodes[seed] = statistics.getNodeCount();
+        }
+        Arrays.sort(nodes);
+        return nodes;
+    }
+
+    // Nearest-rank percentile of an ascending array.
+    private static long percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
     public static void main(String[] args) {
         SudokuExperiment experiment = new SudokuExperiment();
         experiment.run();
@@ -2,8 +2,14 @@ package gui;
 
 import io.SudokuIO;
 import model.SudokuBoard;
+import solver.CancellationToken;
 import solver.SequentialSudokuSolver;
 import solver.ParallelSudokuSolver;
+import solver.PortfolioSudokuSolver;
+import solver.PropagatingSudokuSolver;
+import solver.SolveResult;
+import solver.SolveStatus;
+import solver.SudokuSolver;
 import experiment.SudokuExperiment;
 
 import javax.swing.*;
@@ -12,14 +18,17 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * - Sudoku GUI application.
- * - Solver selection combo (Sequential / Parallel)
+ * - Solver selection combo (Sequential / Parallel / Propagating / Portfolio)
  * - Load sample / Load file / Clear
  */
 public class SudokuGui extends JFrame {
     private static final int SIZE = 9;
+    // Keeps an unsolvable hand-entered grid from blocking the Solve button forever.
+    private static final Duration SOLVE_TIMEOUT = Duration.ofSeconds(30);
     private final JTextField[][] cells = new JTextField[SIZE][SIZE];
     private final JLabel statusLabel = new JLabel(" ");
 
@@ -78,7 +87,7 @@ public class SudokuGui extends JFrame {
         experimentButton = new JButton("Run Experiment");
 
         // Solver selection
-        solverChoice = new JComboBox<>(new String[] { "Sequential Solver", "Parallel Solver" });
+        solverChoice = new JComboBox<>(new String[] { "Sequential Solver", "Parallel Solver", "Propagating Solver", "Portfolio Solver" });
         controlRow.add(new JLabel("Solver:"));
         controlRow.add(solverChoice);
 
@@ -176,36 +185,34 @@ public class SudokuGui extends JFrame {
         setControlsEnabled(false);
         setStatus("Solving...");
 
-        final boolean useParallel = "Parallel Solver".equals(solverChoice.getSelectedItem());
+        final String solverName = (String) solverChoice.getSelectedItem();
 
         // SwingWorker to run solver off EDT
-        SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
+        SwingWorker<SolveResult, Void> worker = new SwingWorker<SolveResult, Void>() {
             private long durationNanos;
 
             @Override
-            protected Boolean doInBackground() {
+            protected SolveResult doInBackground() {
                 long start = System.nanoTime();
-                boolean solved;
-                if (useParallel) {
-                    ParallelSudokuSolver solver = new ParallelSudokuSolver();
-                    solved = solver.solve(grid); // solver will mutate grid to solution
-                } else {
-                    SequentialSudokuSolver solver = new SequentialSudokuSolver();
-                    solved = solver.solve(grid);
-                }
+                SudokuSolver solver = createSolver(solverName);
+                // solver will mutate grid to solution
+                SolveResult result = solver.solve(grid, CancellationToken.withTimeout(SOLVE_TIMEOUT));
                 durationNanos = System.nanoTime() - start;
-                return solved;
+                return result;
             }
 
             @Override
             protected void done() {
                 try {
-                    boolean solved = get();
+                    SolveResult result = get();
+                    SolveStatus status = result.getStatus();
                     double ms = durationNanos / 1_000_000.0;
-                    if (solved) {
+                    if (status == SolveStatus.SOLVED) {
                         loadBoardToUi(new SudokuBoard(grid));
-                        setStatus(String.format("Solved ✓ (%.2f ms) [%s]", ms,
-                                useParallel ? "Parallel" : "Sequential"));
+                        setStatus(String.format("Solved ✓ (%.2f ms, %d nodes) [%s]", ms,
+                                result.getNodeCount(), solverName.replace(" Solver", "")));
+                    } else if (status == SolveStatus.TIMED_OUT) {
+                        setStatus(String.format("Timed out after %d s", SOLVE_TIMEOUT.getSeconds()));
                     } else {
                         setStatus(String.format("No solution found (%.2f ms)", ms));
                     }
@@ -220,6 +227,17 @@ public class SudokuGui extends JFrame {
         worker.execute();
     }
 
+    private SudokuSolver createSolver(String solverName) {
+        if ("Parallel Solver".equals(solverName)) {
+            return new ParallelSudokuSolver();
+        } else if ("Propagating Solver".equals(solverName)) {
+            return new PropagatingSudokuSolver();
+        } else if ("Portfolio Solver".equals(solverName)) {
+            return new PortfolioSudokuSolver();
+        }
+        return new SequentialSudokuSolver();
+    }
+
     private void onRunExperiment(ActionEvent ev) {
         // disable UI controls while running experiment
         setControlsEnabled(false);
@@ -7,11 +7,12 @@ import java.util.*;
 /**
  * Loads Sudoku puzzles from files or arrays.
  * Supports space, comma, or no separator formats.
+ * The board size follows from the number of rows: 9 for a standard puzzle, or
+ * 4, 16, 25 or 36. Rows without separators only work up to 9x9, where every
+ * value is a single digit.
  */
 public class PuzzleLoader {
 
-    private static final int SIZE = 9;
-
     // Load puzzle from a file
     public SudokuBoard loadFromFile(String filename) throws IOException {
         List<String> lines = readLines(filename);
@@ -23,8 +24,9 @@ public class PuzzleLoader {
     // Load puzzle from a 2D array
     public SudokuBoard loadFromArray(int[][] grid) {
         validateGrid(grid);
-        int[][] copy = new int[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) System.arraycopy(grid[i], 0, copy[i], 0, SIZE);
+        int size = grid.length;
+        int[][] copy = new int[size][size];
+        for (int i = 0; i < size; i++) System.arraycopy(grid[i], 0, copy[i], 0, size);
         return new SudokuBoard(copy);
     }
 
@@ -43,30 +45,31 @@ public class PuzzleLoader {
         return lines;
     }
 
-    // Convert lines to a 9x9 grid
+    // Convert lines to a square grid, one line per row
     private int[][] parseLines(List<String> lines) {
-        if (lines.size() != SIZE) throw new IllegalArgumentException("Expected 9 lines, found " + lines.size());
-        int[][] grid = new int[SIZE][SIZE];
-        for (int r = 0; r < SIZE; r++) grid[r] = parseLine(lines.get(r), r);
+        int size = lines.size();
+        if (!isSupportedSize(size)) throw new IllegalArgumentException("Expected 9 lines (or 4, 16, 25, 36), found " + size);
+        int[][] grid = new int[size][size];
+        for (int r = 0; r < size; r++) grid[r] = parseLine(lines.get(r), r, size);
         return grid;
     }
 
     // Convert a single line to integers
-    private int[] parseLine(String line, int row) {
+    private int[] parseLine(String line, int row, int size) {
         line = line.trim();
         String[] tokens;
         if (line.contains(",")) tokens = line.split(",");
         else if (line.contains(" ")) tokens = line.split("\\s+");
-        else if (line.length() == SIZE) tokens = line.split("");
+        else if (size <= 9 && line.length() == size) tokens = line.split("");
         else throw new IllegalArgumentException("Invalid format at row " + (row+1));
 
-        if (tokens.length != SIZE) throw new IllegalArgumentException("Row " + (row+1) + " must have 9 values");
+        if (tokens.length != size) throw new IllegalArgumentException("Row " + (row+1) + " must have " + size + " values");
 
-        int[] rowData = new int[SIZE];
-        for (int c = 0; c < SIZE; c++) {
+        int[] rowData = new int[size];
+        for (int c = 0; c < size; c++) {
             try {
                 int v = Integer.parseInt(tokens[c].trim());
-                if (v < 0 || v > 9) throw new IllegalArgumentException("Invalid value " + v + " at (" + (row+1) + "," + (c+1) + ")");
+                if (v < 0 || v > size) throw new IllegalArgumentException("Invalid value " + v + " at (" + (row+1) + "," + (c+1) + ")");
                 rowData[c] = v;
             } catch (NumberFormatException e) {
                 throw new IllegalArgumentException("Invalid number '" + tokens[c] + "' at (" + (row+1) + "," + (c+1) + ")");
@@ -77,13 +80,20 @@ public class PuzzleLoader {
 
     // Check grid size and values
     private void validateGrid(int[][] grid) {
-        if (grid == null || grid.length != SIZE) throw new IllegalArgumentException("Grid must have 9 rows");
-        for (int r = 0; r < SIZE; r++) {
-            if (grid[r] == null || grid[r].length != SIZE) throw new IllegalArgumentException("Row " + (r+1) + " must have 9 columns");
-            for (int c = 0; c < SIZE; c++) {
+        if (grid == null || !isSupportedSize(grid.length)) throw new IllegalArgumentException("Grid must have 9 rows (or 4, 16, 25, 36)");
+        int size = grid.length;
+        for (int r = 0; r < size; r++) {
+            if (grid[r] == null || grid[r].length != size) throw new IllegalArgumentException("Row " + (r+1) + " must have " + size + " columns");
+            for (int c = 0; c < size; c++) {
                 int v = grid[r][c];
-                if (v < 0 || v > 9) throw new IllegalArgumentException("Invalid value " + v + " at (" + r + "," + c + ")");
+                if (v < 0 || v > size) throw new IllegalArgumentException("Invalid value " + v + " at (" + r + "," + c + ")");
             }
         }
     }
+
+    // Side of a board with square boxes of a supported order
+    private static boolean isSupportedSize(int size) {
+        int box = (int) Math.round(Math.sqrt(size));
+        return box * box == size && box >= SudokuBoard.MIN_BOX_SIZE && box <= SudokuBoard.MAX_BOX_SIZE;
+    }
 }
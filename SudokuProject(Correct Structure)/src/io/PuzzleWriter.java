@@ -6,13 +6,10 @@ import java.io.*;
 /**
  * This class is responsible for printing and saving Sudoku boards.
  * It works directly with SudokuBoard using getValue(row, col).
+ * Board and box size are taken from each board, so 16x16 and larger boards print too.
  */
 public class PuzzleWriter {
 
-    // Board and box size taken from SudokuBoard constants
-    private static final int BOARD_SIZE = SudokuBoard.SIZE;
-    private static final int BOX_SIZE = SudokuBoard.SUBGRID_SIZE;
-
     /**
      * Prints the board on the console with a formatted layout.
      * @param board
@@ -66,43 +63,49 @@ public class PuzzleWriter {
      */
     public String exportToString(SudokuBoard board) {
         StringBuilder sb = new StringBuilder();
+        int size = board.getSize();
 
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 sb.append(board.getValue(row, col));
-                if (col < BOARD_SIZE - 1) sb.append(" ");
+                if (col < size - 1) sb.append(" ");
             }
-            if (row < BOARD_SIZE - 1) sb.append("\n");
+            if (row < size - 1) sb.append("\n");
         }
         return sb.toString();
     }
 
     /**
      * Creates the formatted Sudoku grid as a string.
-     * Box separators every 3 rows and columns.
+     * Box separators every 3 rows and columns (every box size on larger boards).
      * Empty cells (0) appear as dots for readability.
      */
     private String formatBoard(SudokuBoard board) {
         StringBuilder sb = new StringBuilder();
+        int size = board.getSize();
+        int boxSize = board.getBoxSize();
+        int width = String.valueOf(size).length();
+        String line = createHorizontalLine(boxSize, width);
 
-        sb.append(createHorizontalLine()).append("\n");
+        sb.append(line).append("\n");
 
-        for (int row = 0; row < BOARD_SIZE; row++) {
+        for (int row = 0; row < size; row++) {
 
             sb.append("| ");
 
-            for (int col = 0; col < BOARD_SIZE; col++) {
+            for (int col = 0; col < size; col++) {
                 int value = board.getValue(row, col);
+                String text = value == 0 ? "." : String.valueOf(value);
 
-                sb.append(value == 0 ? ". " : value + " ");
+                sb.append(" ".repeat(width - text.length())).append(text).append(" ");
 
-                if ((col + 1) % BOX_SIZE == 0) sb.append("| ");
+                if ((col + 1) % boxSize == 0) sb.append("| ");
             }
 
             sb.append("\n");
 
-            if ((row + 1) % BOX_SIZE == 0) {
-                sb.append(createHorizontalLine()).append("\n");
+            if ((row + 1) % boxSize == 0) {
+                sb.append(line).append("\n");
             }
         }
 
@@ -113,8 +116,9 @@ public class PuzzleWriter {
      * Creates the horizontal grid border, for example:
      * +-------+-------+-------+
      */
-    private String createHorizontalLine() {
-        return "+-------+-------+-------+";
+    private String createHorizontalLine(int boxSize, int width) {
+        String segment = "-".repeat(boxSize * (width + 1) + 1);
+        return ("+" + segment).repeat(boxSize) + "+";
     }
 
     /**
@@ -150,17 +154,19 @@ public class PuzzleWriter {
         int empty = 0;
         int filled = 0;
 
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
+        int size = board.getSize();
+
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 if (board.getValue(row, col) == 0) empty++;
                 else filled++;
             }
         }
 
-        double percent = (filled * 100.0) / (BOARD_SIZE * BOARD_SIZE);
+        double percent = (filled * 100.0) / board.getCellCount();
 
         System.out.println("\n--- Board Statistics ---");
-        System.out.println("Total cells: 81");
+        System.out.println("Total cells: " + board.getCellCount());
         System.out.println("Filled cells: " + filled);
         System.out.println("Empty cells: " + empty);
         System.out.printf("Fill percentage: %.1f%%\n", percent);
@@ -183,16 +189,17 @@ public class PuzzleWriter {
      */
     public void printValidationInfo(SudokuBoard board) {
         int empty = 0;
+        int size = board.getSize();
 
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 if (board.getValue(row, col) == 0) empty++;
             }
         }
 
         System.out.println("\n--- Validation Info ---");
         System.out.println("Empty cells: " + empty);
-        System.out.println("Filled cells: " + (81 - empty));
+        System.out.println("Filled cells: " + (board.getCellCount() - empty));
 
         if (board.isComplete()) {
             System.out.println("Board status: ✓ Complete and valid");
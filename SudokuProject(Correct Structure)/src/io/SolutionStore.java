@@ -0,0 +1,324 @@
+package io;
+
+import model.SudokuBoard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Persistent store of solved puzzles, kept in a memory-mapped file so it survives
+ * restarts and is ready as soon as the file is mapped.
+ *
+ * The file is an open-addressing hash table with linear probing. Each slot holds
+ * a tag, the packed puzzle (the key) and the packed solution (the value); cells
+ * are packed four bits each, sixteen to a long. Entries are only ever added,
+ * never changed or removed, so lookups need no locks: the writer fills in key and
+ * value first and publishes the slot by writing its tag last with release
+ * semantics, and a reader that sees the tag with acquire semantics also sees a
+ * complete entry.
+ *
+ * There is one writer per file: a store opened with {@link #open} holds an
+ * exclusive lock on the file until it is closed, and its {@link #put} calls are
+ * serialized. Stores opened with {@link #openReadOnly} can look entries up,
+ * including ones added by the writer after they were opened.
+ *
+ * The capacity is fixed when the file is created. {@link #put} refuses new
+ * entries once the table is three quarters full, to keep probe chains short.
+ * The file is little-endian whatever the platform. Only 9x9 puzzles are stored;
+ * larger boards are never found and never added.
+ */
+public final class SolutionStore implements Closeable {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int MAGIC = 0x53554B53; // "SUKS"
+    private static final int VERSION = 1;
+
+    // Header: magic, version, capacity (ints), then the entry count (long) at COUNT_OFFSET.
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int COUNT_OFFSET = 16;
+    private static final int HEADER_BYTES = 64;
+
+    private static final int PACKED_LONGS = (SudokuBoard.CELL_COUNT + 15) / 16;
+
+    // Slot: tag, then the packed puzzle, then the packed solution. A tag of 0 marks an empty slot.
+    private static final int KEY_OFFSET = Long.BYTES;
+    private static final int VALUE_OFFSET = KEY_OFFSET + PACKED_LONGS * Long.BYTES;
+    private static final int SLOT_BYTES = VALUE_OFFSET + PACKED_LONGS * Long.BYTES;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+    private final FileLock writerLock;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int indexMask;
+
+    private SolutionStore(FileChannel channel, FileLock writerLock, MappedByteBuffer buffer, int capacity) {
+        this.channel = channel;
+        this.writerLock = writerLock;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.indexMask = capacity - 1;
+    }
+
+    /**
+     * Opens the store in {@code file} for reading and writing, creating it with
+     * {@link #DEFAULT_CAPACITY} slots if it does not exist.
+     */
+    public static SolutionStore open(Path file) throws IOException {
+        return open(file, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Opens the store in {@code file} for reading and writing. A new file gets
+     * {@code capacity} slots, rounded up to a power of two; an existing file keeps
+     * the capacity it was created with.
+     * @throws IOException if the file cannot be mapped, is not a solution store,
+     *                     or is already open for writing
+     */
+    public static SolutionStore open(Path file, int capacity) throws IOException {
+        if (capacity < 1 || capacity > (1 << 24)) {
+            throw new IllegalArgumentException("capacity must be in [1, 2^24]");
+        }
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException heldInThisProcess) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException("Solution store is already open for writing: " + file);
+            }
+            boolean created = channel.size() == 0;
+            int slots = created ? roundUpToPowerOfTwo(capacity) : readCapacity(channel, file);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(slots));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (created) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(CAPACITY_OFFSET, slots);
+            }
+            SolutionStore store = new SolutionStore(channel, lock, buffer, slots);
+            store.recount();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing store for lookups only. It sees entries the writer adds later.
+     */
+    public static SolutionStore openReadOnly(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            int slots = readCapacity(channel, file);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize(slots));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new SolutionStore(channel, null, buffer, slots);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the stored solution of {@code puzzle}, or empty if it has none.
+     */
+    public Optional<SudokuBoard> lookup(SudokuBoard puzzle) {
+        if (puzzle.getSize() != SudokuBoard.SIZE) {
+            return Optional.empty();
+        }
+        long[] key = pack(puzzle);
+        int slot = find(key, hash(key));
+        if (slot < 0 || tagAt(slot) == 0) {
+            return Optional.empty();
+        }
+        int offset = slotOffset(slot) + VALUE_OFFSET;
+        int[] cells = new int[SudokuBoard.CELL_COUNT];
+        for (int word = 0; word < PACKED_LONGS; word++) {
+            long packed = buffer.getLong(offset + word * Long.BYTES);
+            for (int nibble = 0; nibble < 16 && word * 16 + nibble < cells.length; nibble++) {
+                cells[word * 16 + nibble] = (int) (packed >>> (nibble * 4)) & 0xF;
+            }
+        }
+        return Optional.of(new SudokuBoard(cells));
+    }
+
+    /**
+     * Stores {@code solution} for {@code puzzle}. Does nothing if the puzzle is already stored.
+     * @return false if the store is full or the puzzle is not 9x9, so the entry was not added
+     * @throws IllegalStateException if the store was opened read-only
+     */
+    public synchronized boolean put(SudokuBoard puzzle, SudokuBoard solution) {
+        if (isReadOnly()) {
+            throw new IllegalStateException("Solution store was opened read-only.");
+        }
+        if (!solution.isComplete()) {
+            throw new IllegalArgumentException("Solution must be a complete board.");
+        }
+        if (puzzle.getSize() != SudokuBoard.SIZE || solution.getSize() != SudokuBoard.SIZE) {
+            return false;
+        }
+        long[] key = pack(puzzle);
+        long hash = hash(key);
+        int slot = find(key, hash);
+        if (slot >= 0 && tagAt(slot) != 0) {
+            return true;
+        }
+        long count = size();
+        if (slot < 0 || count + 1 > (long) capacity * 3 / 4) {
+            return false;
+        }
+
+        int offset = slotOffset(slot);
+        long[] value = pack(solution);
+        for (int word = 0; word < PACKED_LONGS; word++) {
+            buffer.putLong(offset + KEY_OFFSET + word * Long.BYTES, key[word]);
+            buffer.putLong(offset + VALUE_OFFSET + word * Long.BYTES, value[word]);
+        }
+        LONGS.setRelease(buffer, offset, tagOf(hash));
+        LONGS.setRelease(buffer, COUNT_OFFSET, count + 1);
+        return true;
+    }
+
+    /**
+     * Number of stored puzzles.
+     */
+    public long size() {
+        return (long) LONGS.getAcquire(buffer, COUNT_OFFSET);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Whether the store was opened with {@link #openReadOnly}, so {@link #put} is not allowed.
+     */
+    public boolean isReadOnly() {
+        return writerLock == null;
+    }
+
+    /**
+     * Writes changes made so far through to the file.
+     */
+    public void force() {
+        if (!isReadOnly()) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close(); // also releases the writer lock
+    }
+
+    /**
+     * Returns the slot holding {@code key}, the empty slot where it would go, or -1 if
+     * the table is full without it.
+     */
+    private int find(long[] key, long hash) {
+        long tag = tagOf(hash);
+        int slot = (int) (hash >>> 32) & indexMask;
+        for (int probes = 0; probes < capacity; probes++) {
+            long slotTag = tagAt(slot);
+            if (slotTag == 0 || (slotTag == tag && keyMatches(slot, key))) {
+                return slot;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+        return -1;
+    }
+
+    private boolean keyMatches(int slot, long[] key) {
+        int offset = slotOffset(slot) + KEY_OFFSET;
+        for (int word = 0; word < PACKED_LONGS; word++) {
+            if (buffer.getLong(offset + word * Long.BYTES) != key[word]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long tagAt(int slot) {
+        return (long) LONGS.getAcquire(buffer, slotOffset(slot));
+    }
+
+    // An entry published by a writer that crashed before updating the count is counted again here.
+    private void recount() {
+        long count = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            if (tagAt(slot) != 0) {
+                count++;
+            }
+        }
+        LONGS.setRelease(buffer, COUNT_OFFSET, count);
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    private static long[] pack(SudokuBoard board) {
+        long[] packed = new long[PACKED_LONGS];
+        for (int index = 0; index < SudokuBoard.CELL_COUNT; index++) {
+            packed[index >>> 4] |= (long) board.getValueAt(index) << ((index & 15) * 4);
+        }
+        return packed;
+    }
+
+    private static long hash(long[] key) {
+        long hash = 0;
+        for (long word : key) {
+            hash = (hash ^ word) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 29;
+        }
+        return hash;
+    }
+
+    // Never 0, which marks an empty slot.
+    private static long tagOf(long hash) {
+        return hash | 1;
+    }
+
+    private static int readCapacity(FileChannel channel, Path file) throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            throw new IOException("Not a solution store: " + file);
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        int slots = header.getInt(CAPACITY_OFFSET);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION
+                || slots < 1 || Integer.bitCount(slots) != 1
+                || channel.size() < fileSize(slots)) {
+            throw new IOException("Not a solution store: " + file);
+        }
+        return slots;
+    }
+
+    private static long fileSize(int slots) {
+        return HEADER_BYTES + (long) slots * SLOT_BYTES;
+    }
+
+    private static int roundUpToPowerOfTwo(int capacity) {
+        return capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
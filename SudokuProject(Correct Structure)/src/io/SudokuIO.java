@@ -1,25 +1,42 @@
 package io;
 
 import model.SudokuBoard;
+import solver.SudokuSolver;
+
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * Provides all input/output operations for Sudoku puzzles.
  * This class acts as a facade, combining loading, printing,
  * exporting, and writing Sudoku boards through PuzzleLoader
- * and PuzzleWriter.
+ * and PuzzleWriter. With a SolutionStore it also answers puzzles
+ * solved in earlier runs without solving them again.
  */
 public class SudokuIO {
     
     private final PuzzleLoader loader;   // Handles reading puzzles
     private final PuzzleWriter writer;   // Handles writing and printing puzzles
+    private final SolutionStore store;   // Persistent solutions, or null
     
     /**
      * Creates a SudokuIO instance with default loader and writer.
      */
     public SudokuIO() {
+        this(null);
+    }
+
+    /**
+     * Creates a SudokuIO instance that looks puzzles up in the given
+     * solution store before solving them, and records new solutions there
+     * unless the store was opened read-only.
+     * The store stays owned by the caller, who closes it.
+     * @param store the store to use, or null for none
+     */
+    public SudokuIO(SolutionStore store) {
         this.loader = new PuzzleLoader();
         this.writer = new PuzzleWriter();
+        this.store = store;
     }
 
     /**
@@ -35,7 +52,7 @@ public class SudokuIO {
     }
 
     /**
-     * Loads a Sudoku puzzle from a 9x9 integer array.
+     * Loads a Sudoku puzzle from a square integer array (9x9, or 4x4 up to 36x36).
      * The value 0 in the array is treated as an empty cell.
      * Returns a SudokuBoard based on the provided grid.
      * @param grid
@@ -105,4 +122,46 @@ public class SudokuIO {
     public void printStatistics(SudokuBoard board) {
         writer.printStatistics(board);
     }
+
+    /**
+     * Looks a puzzle up in the solution store.
+     * Returns the stored solution, or empty if the puzzle is not stored
+     * or this instance has no store.
+     * @param puzzle
+     * @return 
+     */
+    public Optional<SudokuBoard> lookupSolution(SudokuBoard puzzle) {
+        if (store == null) {
+            return Optional.empty();
+        }
+        return store.lookup(puzzle);
+    }
+
+    /**
+     * Solves a puzzle, answering from the solution store when it is
+     * already there and invoking the solver only otherwise. New solutions
+     * are added to the store, so the next run finds them, unless the store
+     * is read-only.
+     * The puzzle itself is left unchanged.
+     * Returns the solved board, or empty if the solver found no solution.
+     * @param puzzle
+     * @param solver
+     * @return 
+     */
+    public Optional<SudokuBoard> solve(SudokuBoard puzzle, SudokuSolver solver) {
+        Optional<SudokuBoard> stored = lookupSolution(puzzle);
+        if (stored.isPresent()) {
+            return stored;
+        }
+
+        int[][] grid = puzzle.toArray();
+        if (!solver.solve(grid)) {
+            return Optional.empty();
+        }
+        SudokuBoard solution = new SudokuBoard(grid);
+        if (store != null && !store.isReadOnly()) {
+            store.put(puzzle, solution);
+        }
+        return Optional.of(solution);
+    }
 }
@@ -0,0 +1,52 @@
+package model;
+
+import java.util.Optional;
+
+/**
+ * Bulk candidate and validation kernels behind {@link SudokuBoard#unitCandidates}
+ * and {@link SudokuBoard#isSolution}. Boards pick one per operation and size;
+ * callers such as benchmarks can also pick one directly.
+ *
+ * The vector engine uses the incubating Vector API. It lives in the separate
+ * {@code src-vector} source root, compiled with {@code --add-modules jdk.incubator.vector},
+ * so the rest of the tree builds with plain javac. {@link #vector()} loads it by name:
+ * when its classes are not on the class path, or the JVM was started without the
+ * module, it is empty and boards fall back to the scalar engine.
+ */
+public interface CandidateEngine {
+
+    /**
+     * Writes the candidates of every cell of {@code unit} into {@code target}, in
+     * {@link SudokuBoard#getUnitCell} order; filled cells get 0.
+     */
+    void unitCandidates(SudokuBoard board, int unit, long[] target);
+
+    /**
+     * Returns whether {@code grid} is a complete, valid solution; see {@link SudokuBoard#isSolution}.
+     */
+    boolean isSolution(int[][] grid);
+
+    /**
+     * The plain loop engine, available everywhere.
+     */
+    static CandidateEngine scalar() {
+        return ScalarCandidateEngine.INSTANCE;
+    }
+
+    /**
+     * The SIMD engine, or empty if it was not compiled in or the
+     * {@code jdk.incubator.vector} module is not loaded.
+     */
+    static Optional<CandidateEngine> vector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            Class<?> engine = Class.forName("model.VectorCandidateEngine");
+            return Optional.of((CandidateEngine) engine.getDeclaredField("INSTANCE").get(null));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Class not built, or built against a Vector API this JVM does not have.
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Canonical representative of a puzzle under the Sudoku symmetry group, together
+ * with the transform that produced it.
+ *
+ * The group is generated by transposition, permuting the three bands, permuting
+ * the rows inside a band, permuting the three stacks, permuting the columns inside
+ * a stack, and relabeling the digits. Every symmetry maps valid grids to valid
+ * grids, so a puzzle and all its rotated, transposed, relabeled or band-permuted
+ * variants share one canonical form, and a solution of the canonical puzzle maps
+ * back to a solution of each of them.
+ *
+ * The canonical form is the lexicographically smallest row-major sequence of cell
+ * values (0 = empty sorts first) over the whole group. Digits are relabeled in order
+ * of first appearance, which is always the smallest relabeling for a fixed layout.
+ * The layout is searched cell group by cell group (the first row one stack at a
+ * time, since it also fixes the column order; later rows whole), dropping every
+ * partial layout that already compares greater than the best one found so far.
+ * Choices that a symmetry of the puzzle itself maps onto an earlier choice (two
+ * equal rows of a band, two bands holding the same rows, likewise for columns and
+ * stacks, and the transposition of a symmetric puzzle) lead to the same layouts
+ * and are skipped.
+ *
+ * That keeps typical puzzles to a few hundred microseconds, but puzzles whose rows
+ * only differ by a relabeling of their digits, such as nearly complete grids, still
+ * tie on long prefixes. {@link #of(int[][], long)} caps the search for callers that
+ * would rather do without a canonical form than wait for one.
+ */
+public final class CanonicalForm {
+
+    private static final int SIZE = SudokuBoard.SIZE;
+    private static final int BLOCK = SudokuBoard.SUBGRID_SIZE;
+
+    // The six orders of a band's rows or a stack's columns.
+    private static final int[][] ORDERS_OF_THREE = {
+            {0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}
+    };
+
+    private final int[] cells;
+
+    // The transform: canonical (r, c) holds label[source(rowOrder[r], columnOrder[c])],
+    // where source is the input grid, transposed first if {@code transposed}.
+    private final boolean transposed;
+    private final int[] rowOrder;
+    private final int[] columnOrder;
+    private final int[] label;
+    private final int[] unlabel;
+
+    private CanonicalForm(int[] cells, boolean transposed, int[] rowOrder, int[] columnOrder, int[] label) {
+        this.cells = cells;
+        this.transposed = transposed;
+        this.rowOrder = rowOrder;
+        this.columnOrder = columnOrder;
+        this.label = label;
+        this.unlabel = new int[SIZE + 1];
+        for (int digit = 0; digit <= SIZE; digit++) {
+            unlabel[label[digit]] = digit;
+        }
+    }
+
+    /**
+     * Computes the canonical form of a 9x9 puzzle (0 = empty).
+     */
+    public static CanonicalForm of(int[][] puzzle) {
+        return of(puzzle, Long.MAX_VALUE);
+    }
+
+    /**
+     * Computes the canonical form of a 9x9 puzzle (0 = empty), giving up after
+     * {@code stepLimit} search steps (one step writes one stack of the first row or
+     * one later row).
+     * @return the canonical form, or null if the search ran out of steps
+     */
+    public static CanonicalForm of(int[][] puzzle, long stepLimit) {
+        if (stepLimit < 1) {
+            throw new IllegalArgumentException("stepLimit must be >= 1");
+        }
+        if (puzzle == null || puzzle.length != SIZE) {
+            throw new IllegalArgumentException("Puzzle must be a non-null 9x9 array.");
+        }
+        int[][] sources = new int[2][SudokuBoard.CELL_COUNT];
+        for (int row = 0; row < SIZE; row++) {
+            if (puzzle[row] == null || puzzle[row].length != SIZE) {
+                throw new IllegalArgumentException("Puzzle must be a non-null 9x9 array.");
+            }
+            for (int col = 0; col < SIZE; col++) {
+                int value = puzzle[row][col];
+                if (value < 0 || value > SIZE) {
+                    throw new IllegalArgumentException(
+                            String.format("Cell value must be in [0, %d]. Got: %d.", SIZE, value));
+                }
+                sources[0][row * SIZE + col] = value;
+                sources[1][col * SIZE + row] = value;
+            }
+        }
+        return new Search(sources, stepLimit).run();
+    }
+
+    /**
+     * Returns the canonical puzzle as 81 row-major values. Equal for all equivalent puzzles.
+     */
+    public int[] getCells() {
+        return cells.clone();
+    }
+
+    /**
+     * Returns the canonical puzzle as a string of 81 digits, for use as a map key.
+     */
+    public String getKey() {
+        char[] key = new char[SudokuBoard.CELL_COUNT];
+        for (int index = 0; index < key.length; index++) {
+            key[index] = (char) ('0' + cells[index]);
+        }
+        return new String(key);
+    }
+
+    /**
+     * Applies this form's transform to another grid in the puzzle's frame, such as its solution.
+     */
+    public int[][] toCanonical(int[][] grid) {
+        int[][] canonical = new int[SIZE][SIZE];
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int sourceRow = rowOrder[row];
+                int sourceCol = columnOrder[col];
+                int value = transposed ? grid[sourceCol][sourceRow] : grid[sourceRow][sourceCol];
+                canonical[row][col] = label[value];
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * Maps a grid in the canonical frame back through the inverse transform, writing it into {@code target}.
+     */
+    public void fromCanonical(int[][] canonical, int[][] target) {
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int sourceRow = rowOrder[row];
+                int sourceCol = columnOrder[col];
+                int value = unlabel[canonical[row][col]];
+                if (transposed) {
+                    target[sourceCol][sourceRow] = value;
+                } else {
+                    target[sourceRow][sourceCol] = value;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        return Arrays.equals(cells, ((CanonicalForm) obj).cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(cells);
+    }
+
+    @Override
+    public String toString() {
+        return getKey();
+    }
+
+    /**
+     * Depth-first search over layouts. The first canonical row fixes the transposition
+     * and the column order, stack by stack; each later row only picks which source row
+     * goes next. Digit labels in force before each step are kept per step, so a branch
+     * is undone by simply moving back a step.
+     *
+     * Rows and columns of each source are numbered by class (the first equal row or
+     * column), and bands and stacks get a signature (their sorted classes). A row may
+     * replace an unused earlier one of its class in the same band, or in a band with
+     * the same signature, without changing anything the search can reach; so can a
+     * stack for an unused earlier stack with its signature, or an order of a stack's
+     * columns for an earlier order with the same classes.
+     */
+    private static final class Search {
+
+        private static final int UNSET = Integer.MAX_VALUE;
+
+        // Steps 0..2 write the stacks of the first row, steps 3..10 rows 1..8.
+        private static final int STEPS = BLOCK + SIZE - 1;
+
+        private final int[][] sources;
+        private final long stepLimit;
+        private long steps;
+
+        // Smallest layout found so far; cells after the current best prefix are UNSET.
+        private final int[] best = new int[SudokuBoard.CELL_COUNT];
+        private boolean bestTransposed;
+        private final int[] bestRowOrder = new int[SIZE];
+        private final int[] bestColumnOrder = new int[SIZE];
+        private final int[] bestLabel = new int[SIZE + 1];
+
+        private int[] source;
+        private boolean transposed;
+        private final int[] rowClass = new int[SIZE];
+        private final int[] columnClass = new int[SIZE];
+        private final int[] bandSignature = new int[BLOCK];
+        private final int[] stackSignature = new int[BLOCK];
+        private final int[] rowOrder = new int[SIZE];
+        private final boolean[] rowUsed = new boolean[SIZE];
+        private final int[] columnOrder = new int[SIZE];
+        private final boolean[] stackUsed = new boolean[BLOCK];
+
+        // labels[step] is the digit relabeling in force before {@code step}; nextLabel likewise.
+        private final int[][] labels = new int[STEPS + 1][SIZE + 1];
+        private final int[] nextLabel = new int[STEPS + 1];
+
+        Search(int[][] sources, long stepLimit) {
+            this.sources = sources;
+            this.stepLimit = stepLimit;
+            Arrays.fill(best, UNSET);
+            nextLabel[0] = 1;
+        }
+
+        CanonicalForm run() {
+            // A puzzle equal to its transpose would only repeat every layout.
+            int sides = Arrays.equals(sources[0], sources[1]) ? 1 : 2;
+            for (int side = 0; side < sides; side++) {
+                source = sources[side];
+                transposed = side == 1;
+                classify();
+                for (int row = 0; row < SIZE; row++) {
+                    if (hasEarlierTwin(0, row)) {
+                        continue;
+                    }
+                    rowOrder[0] = row;
+                    rowUsed[row] = true;
+                    tryStacks(0);
+                    rowUsed[row] = false;
+                }
+            }
+            if (steps > stepLimit) {
+                return null;
+            }
+
+            // Digits the puzzle does not use get the remaining labels in increasing order.
+            int next = 1;
+            for (int digit = 1; digit <= SIZE; digit++) {
+                next = Math.max(next, bestLabel[digit] + 1);
+            }
+            for (int digit = 1; digit <= SIZE; digit++) {
+                if (bestLabel[digit] == 0) {
+                    bestLabel[digit] = next++;
+                }
+            }
+            return new CanonicalForm(best.clone(), bestTransposed, bestRowOrder.clone(),
+                    bestColumnOrder.clone(), bestLabel.clone());
+        }
+
+        // Fills canonical stack {@code slot} of the first row with every unused source stack in every order.
+        private void tryStacks(int slot) {
+            if (slot == BLOCK) {
+                tryRowsAfter(0);
+                return;
+            }
+            for (int stack = 0; stack < BLOCK; stack++) {
+                if (stackUsed[stack] || hasEarlierTwinStack(stack)) {
+                    continue;
+                }
+                stackUsed[stack] = true;
+                for (int order = 0; order < ORDERS_OF_THREE.length; order++) {
+                    if (repeatsEarlierOrder(stack, order)) {
+                        continue;
+                    }
+                    int[] inside = ORDERS_OF_THREE[order];
+                    for (int offset = 0; offset < BLOCK; offset++) {
+                        columnOrder[slot * BLOCK + offset] = stack * BLOCK + inside[offset];
+                    }
+                    if (write(slot, rowOrder[0], 0, slot * BLOCK, (slot + 1) * BLOCK)) {
+                        tryStacks(slot + 1);
+                    }
+                }
+                stackUsed[stack] = false;
+            }
+        }
+
+        // Tries every source row allowed at canonical row {@code level + 1}, or records a complete layout.
+        private void tryRowsAfter(int level) {
+            if (level == SIZE - 1) {
+                bestTransposed = transposed;
+                System.arraycopy(rowOrder, 0, bestRowOrder, 0, SIZE);
+                System.arraycopy(columnOrder, 0, bestColumnOrder, 0, SIZE);
+                System.arraycopy(labels[STEPS], 0, bestLabel, 0, SIZE + 1);
+                return;
+            }
+            int next = level + 1;
+            // A new band may start with any unused row; otherwise stay in the current band.
+            int from = next % BLOCK == 0 ? 0 : rowOrder[level] / BLOCK * BLOCK;
+            int to = next % BLOCK == 0 ? SIZE : from + BLOCK;
+            for (int row = from; row < to; row++) {
+                if (rowUsed[row] || hasEarlierTwin(from, row)) {
+                    continue;
+                }
+                if (write(BLOCK - 1 + next, row, next, 0, SIZE)) {
+                    rowOrder[next] = row;
+                    rowUsed[row] = true;
+                    tryRowsAfter(next);
+                    rowUsed[row] = false;
+                }
+            }
+        }
+
+        // Numbers the rows and columns of the current source by class and signs its bands and stacks.
+        private void classify() {
+            for (int line = 0; line < SIZE; line++) {
+                rowClass[line] = line;
+                columnClass[line] = line;
+                for (int earlier = 0; earlier < line; earlier++) {
+                    if (rowClass[line] == line && sameRows(earlier, line)) {
+                        rowClass[line] = earlier;
+                    }
+                    if (columnClass[line] == line && sameColumns(earlier, line)) {
+                        columnClass[line] = earlier;
+                    }
+                }
+            }
+            for (int block = 0; block < BLOCK; block++) {
+                bandSignature[block] = signature(rowClass, block);
+                stackSignature[block] = signature(columnClass, block);
+            }
+        }
+
+        private boolean sameRows(int first, int second) {
+            return Arrays.equals(source, first * SIZE, (first + 1) * SIZE, source, second * SIZE, (second + 1) * SIZE);
+        }
+
+        private boolean sameColumns(int first, int second) {
+            for (int row = 0; row < SIZE; row++) {
+                if (source[row * SIZE + first] != source[row * SIZE + second]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // The classes of the block's three lines, sorted, packed into one int.
+        private static int signature(int[] classes, int block) {
+            int[] sorted = Arrays.copyOfRange(classes, block * BLOCK, (block + 1) * BLOCK);
+            Arrays.sort(sorted);
+            return (sorted[0] * SIZE + sorted[1]) * SIZE + sorted[2];
+        }
+
+        // Whether an unused row in [from, row) could stand in for {@code row} at the next canonical row.
+        private boolean hasEarlierTwin(int from, int row) {
+            for (int earlier = from; earlier < row; earlier++) {
+                if (!rowUsed[earlier] && rowClass[earlier] == rowClass[row]
+                        && bandSignature[earlier / BLOCK] == bandSignature[row / BLOCK]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean hasEarlierTwinStack(int stack) {
+            for (int earlier = 0; earlier < stack; earlier++) {
+                if (!stackUsed[earlier] && stackSignature[earlier] == stackSignature[stack]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Whether an earlier order of the stack's columns lists the same column classes.
+        private boolean repeatsEarlierOrder(int stack, int order) {
+            for (int earlier = 0; earlier < order; earlier++) {
+                boolean same = true;
+                for (int offset = 0; offset < BLOCK; offset++) {
+                    same &= columnClass[stack * BLOCK + ORDERS_OF_THREE[earlier][offset]]
+                            == columnClass[stack * BLOCK + ORDERS_OF_THREE[order][offset]];
+                }
+                if (same) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Relabels columns {@code [from, to)} of source row {@code row} into canonical row
+         * {@code level} as step {@code step}, comparing with the best layout. Returns false
+         * if they compare greater; if smaller, they become the best prefix and every cell
+         * after them is reset.
+         */
+        private boolean write(int step, int row, int level, int from, int to) {
+            // Once out of steps every write fails, which unwinds the whole search.
+            if (++steps > stepLimit) {
+                return false;
+            }
+            int[] label = labels[step + 1];
+            System.arraycopy(labels[step], 0, label, 0, SIZE + 1);
+            int next = nextLabel[step];
+
+            int offset = level * SIZE;
+            int sourceOffset = row * SIZE;
+            boolean smaller = false;
+            for (int col = from; col < to; col++) {
+                int digit = source[sourceOffset + columnOrder[col]];
+                int value = 0;
+                if (digit != 0) {
+                    if (label[digit] == 0) {
+                        label[digit] = next++;
+                    }
+                    value = label[digit];
+                }
+                if (!smaller) {
+                    int current = best[offset + col];
+                    if (value > current) {
+                        return false;
+                    }
+                    if (value < current) {
+                        smaller = true;
+                        Arrays.fill(best, offset + to, best.length, UNSET);
+                    }
+                }
+                best[offset + col] = value;
+            }
+            nextLabel[step + 1] = next;
+            return true;
+        }
+    }
+}
@@ -1,9 +1,24 @@
 package model;
 
-import java.util.Objects;
-
+/**
+ * An immutable (row, column) pair. Positions on boards up to the largest supported
+ * size are shared instances: {@link #of}, {@link #withRow} and {@link #withColumn}
+ * return them from a cache instead of allocating. Search code works on flat cell
+ * indices ({@link SudokuBoard#findNextEmptyCellIndex}) and never needs one.
+ */
 public final class CellPosition {
 
+    // Side of the largest supported board; positions within it are cached.
+    private static final int CACHED_SIDE = SudokuBoard.MAX_BOX_SIZE * SudokuBoard.MAX_BOX_SIZE;
+
+    private static final CellPosition[] CACHE = new CellPosition[CACHED_SIDE * CACHED_SIDE];
+
+    static {
+        for (int index = 0; index < CACHE.length; index++) {
+            CACHE[index] = new CellPosition(index / CACHED_SIDE, index % CACHED_SIDE);
+        }
+    }
+
     private final int row;
     private final int column;
 
@@ -25,16 +40,22 @@ public final class CellPosition {
         return column;
     }
 
+    /**
+     * Returns the position at {@code (row, column)}, shared if it lies on the largest supported board.
+     */
     public static CellPosition of(int row, int column) {
+        if (row >= 0 && row < CACHED_SIDE && column >= 0 && column < CACHED_SIDE) {
+            return CACHE[row * CACHED_SIDE + column];
+        }
         return new CellPosition(row, column);
     }
 
     public CellPosition withRow(int newRow) {
-        return new CellPosition(newRow, this.column);
+        return of(newRow, this.column);
     }
 
     public CellPosition withColumn(int newColumn) {
-        return new CellPosition(this.row, newColumn);
+        return of(this.row, newColumn);
     }
 
     @Override
@@ -47,7 +68,8 @@ public final class CellPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, column);
+        // Same value as Objects.hash(row, column), without boxing the two ints into an array.
+        return 31 * (31 + row) + column;
     }
 
     @Override
@@ -57,4 +79,4 @@ public final class CellPosition {
                ", column=" + column +
                '}';
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package model;
+
+/**
+ * Candidate engine with plain loops: the fallback when the Vector API is missing,
+ * and the engine of choice on small boards.
+ */
+final class ScalarCandidateEngine implements CandidateEngine {
+
+    static final ScalarCandidateEngine INSTANCE = new ScalarCandidateEngine();
+
+    private ScalarCandidateEngine() {
+    }
+
+    @Override
+    public void unitCandidates(SudokuBoard board, int unit, long[] target) {
+        board.validateUnit(unit, target);
+        SudokuBoard.Geometry g = board.geometry;
+        long[] masks = board.unitMasks;
+        int base = unit * g.size;
+        for (int position = 0; position < g.size; position++) {
+            int cell = g.unitCells[base + position];
+            if (board.cells[cell] != 0) {
+                target[position] = 0;
+            } else {
+                long used = masks[g.rowOf[cell]] | masks[g.size + g.columnOf[cell]] | masks[2 * g.size + g.boxOf[cell]];
+                target[position] = ~used & g.allDigits;
+            }
+        }
+    }
+
+    @Override
+    public boolean isSolution(int[][] grid) {
+        SudokuBoard.Geometry g = SudokuBoard.geometryForSide(grid == null ? 0 : grid.length);
+        int size = g.size;
+        int boxSize = g.boxSize;
+        long[] columns = new long[size];
+        long[] boxes = new long[size];
+
+        for (int row = 0; row < size; row++) {
+            int[] values = grid[row];
+            if (values == null || values.length != size) {
+                return false;
+            }
+            long seen = 0;
+            int boxBase = (row / boxSize) * boxSize;
+            for (int col = 0; col < size; col++) {
+                int value = values[col];
+                if (value < 1 || value > size) {
+                    return false;
+                }
+                long bit = 1L << (value - 1);
+                seen |= bit;
+                columns[col] |= bit;
+                boxes[boxBase + col / boxSize] |= bit;
+            }
+            // A full row of size values covers all size digits only if none repeats.
+            if (seen != g.allDigits) {
+                return false;
+            }
+        }
+        for (int unit = 0; unit < size; unit++) {
+            if (columns[unit] != g.allDigits || boxes[unit] != g.allDigits) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
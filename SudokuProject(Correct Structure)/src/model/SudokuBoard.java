@@ -2,174 +2,420 @@ package model;
 
 import java.util.Arrays;
 import java.util.Optional;
-
+import java.util.SplittableRandom;
+
+/**
+ * A Sudoku board of box order n: an n² x n² grid of n x n boxes, holding the digits
+ * 1 to n². Boards from 4x4 (n = 2) up to 36x36 (n = 6) are supported; the static
+ * constants and the no-argument constructor describe the standard 9x9 board.
+ *
+ * Candidate sets are bit masks with bit {@code d - 1} set for digit {@code d}; they
+ * are longs so that they hold the 36 digits of the largest boards.
+ *
+ * Units are numbered rows first, then columns, then boxes: unit {@code u} is row
+ * {@code u}, column {@code u - size} or box {@code u - 2 * size}. Bulk work over
+ * units goes through a {@link CandidateEngine}; boards of 16x16 and up validate
+ * grids with the SIMD engine when it was built and the JVM has the
+ * {@code jdk.incubator.vector} module. Unit candidates stay scalar: a unit splits into box-wide runs of 4 to 6
+ * cells, too short to pay for masked vector loads (see CandidateEngineBenchmark).
+ */
 public class SudokuBoard implements Cloneable {
 
     public static final int SIZE = 9;
     public static final int SUBGRID_SIZE = 3;
 
-    private final int[][] grid;
+    /** Number of cells on the board; flat cell indices run from 0 to {@code CELL_COUNT - 1} in row-major order. */
+    public static final int CELL_COUNT = SIZE * SIZE;
+
+    /** Mask with one bit set per digit; bit {@code d - 1} stands for digit {@code d}. */
+    public static final long ALL_DIGITS_MASK = (1L << SIZE) - 1;
+
+    /** Smallest and largest supported box order. */
+    public static final int MIN_BOX_SIZE = 2;
+    public static final int MAX_BOX_SIZE = 6;
+
+    // Smallest side that validates with the vector engine; on 9x9 a row is too short to fill the lanes.
+    private static final int VECTOR_MIN_SIZE = 16;
+
+    // Lookup tables per box order; 9x9 is built eagerly, the others on first use.
+    private static final Geometry STANDARD = new Geometry(SUBGRID_SIZE);
+    private static final Geometry[] GEOMETRIES = new Geometry[MAX_BOX_SIZE + 1];
+
+    static {
+        GEOMETRIES[SUBGRID_SIZE] = STANDARD;
+    }
+
+    final Geometry geometry;
+
+    // Row-major cell values, 0 = empty.
+    final byte[] cells;
+
+    // Occupancy masks for the rows, then the columns, then the boxes, kept in sync by setValue/clearCell.
+    final long[] unitMasks;
+
+    private int emptyCellCount;
 
+    // XOR of the Zobrist keys of every filled cell, kept in sync by setValue/clearCell.
+    private long zobristHash;
+
+    /**
+     * Creates an empty 9x9 board.
+     */
     public SudokuBoard() {
-        this.grid = new int[SIZE][SIZE];
+        this(STANDARD);
+    }
+
+    private SudokuBoard(Geometry geometry) {
+        this.geometry = geometry;
+        this.cells = new byte[geometry.cellCount];
+        this.unitMasks = new long[3 * geometry.size];
+        this.emptyCellCount = geometry.cellCount;
     }
 
+    /**
+     * Creates a board from a square grid (0 = empty). Its side must be n² for a
+     * supported box order n, e.g. 9, 16 or 25.
+     */
     public SudokuBoard(int[][] initialValues) {
-        this();
+        this(geometryForSide(initialValues == null ? 0 : initialValues.length));
+        loadRows(initialValues);
+    }
 
-        if (initialValues == null
-                || initialValues.length != SIZE) {
-            throw new IllegalArgumentException("Initial board must be a non-null 9x9 array.");
-        }
+    /**
+     * Creates a board from row-major cell values (0 = empty): 81 for a 9x9 board,
+     * 256 for 16x16, and so on.
+     */
+    public SudokuBoard(int[] initialCells) {
+        this(geometryForCellCount(initialCells == null ? 0 : initialCells.length));
 
-        for (int row = 0; row < SIZE; row++) {
-            if (initialValues[row] == null || initialValues[row].length != SIZE) {
-                throw new IllegalArgumentException("Initial board must be a non-null 9x9 array.");
-            }
-            for (int col = 0; col < SIZE; col++) {
-                int value = initialValues[row][col];
-                validateDigitRange(value);
-                if (value != 0) {
-                    if (!isValidMove(row, col, value)) {
-                        throw new IllegalArgumentException(
-                                String.format(
-                                        "Initial puzzle is invalid: digit %d at (%d, %d) violates Sudoku rules.",
-                                        value, row, col));
-                    }
-                    grid[row][col] = value;
-                }
-            }
+        for (int index = 0; index < cells.length; index++) {
+            loadGiven(index, initialCells[index]);
         }
     }
 
+    /**
+     * Creates an empty board of box order {@code boxSize}: 2 for 4x4, 3 for 9x9, 4 for 16x16, up to 6.
+     */
+    public static SudokuBoard empty(int boxSize) {
+        return new SudokuBoard(geometryFor(boxSize));
+    }
+
 
     public SudokuBoard(SudokuBoard other) {
         if (other == null) {
             throw new IllegalArgumentException("Other board must not be null.");
         }
-        this.grid = new int[SIZE][SIZE];
-        for (int row = 0; row < SIZE; row++) {
-            System.arraycopy(other.grid[row], 0, this.grid[row], 0, SIZE);
+        this.geometry = other.geometry;
+        this.cells = other.cells.clone();
+        this.unitMasks = other.unitMasks.clone();
+        this.emptyCellCount = other.emptyCellCount;
+        this.zobristHash = other.zobristHash;
+    }
+
+    /**
+     * Replaces the whole board with {@code values}, validating them like
+     * {@link #SudokuBoard(int[][])}. Lets batch solvers reuse one board per thread
+     * instead of allocating a new one per puzzle. The values must have the board's
+     * size. If validation fails the board is left partially loaded.
+     */
+    public void load(int[][] values) {
+        if (values == null || values.length != geometry.size) {
+            throw new IllegalArgumentException(
+                    String.format("Board must be a non-null %dx%d array.", geometry.size, geometry.size));
         }
+        Arrays.fill(cells, (byte) 0);
+        Arrays.fill(unitMasks, 0);
+        emptyCellCount = geometry.cellCount;
+        zobristHash = 0;
+        loadRows(values);
+    }
+
+    /**
+     * Returns the flat row-major index of the given cell of a 9x9 board.
+     */
+    public static int indexOf(int row, int column) {
+        return row * SIZE + column;
+    }
+
+    public static int rowOf(int index) {
+        return STANDARD.rowOf[index];
+    }
+
+    public static int columnOf(int index) {
+        return STANDARD.columnOf[index];
+    }
+
+    /**
+     * Number of rows, columns, boxes and digits: 9 on a standard board.
+     */
+    public int getSize() {
+        return geometry.size;
+    }
+
+    /**
+     * Side of one box: 3 on a standard board.
+     */
+    public int getBoxSize() {
+        return geometry.boxSize;
+    }
+
+    public int getCellCount() {
+        return geometry.cellCount;
+    }
+
+    /**
+     * Mask with one bit set per digit of this board.
+     */
+    public long getAllDigitsMask() {
+        return geometry.allDigits;
+    }
+
+    /**
+     * Returns the flat row-major index of the given cell of this board.
+     */
+    public int getIndex(int row, int column) {
+        return row * geometry.size + column;
+    }
+
+    public int getRow(int index) {
+        return geometry.rowOf[index];
+    }
+
+    public int getColumn(int index) {
+        return geometry.columnOf[index];
+    }
+
+    /**
+     * Returns the box of a cell, numbered row-major from 0 at the top left.
+     */
+    public int getBox(int index) {
+        return geometry.boxOf[index];
+    }
+
+    /**
+     * Number of units: rows, columns and boxes, {@code 3 * getSize()} in all.
+     */
+    public int getUnitCount() {
+        return unitMasks.length;
+    }
+
+    /**
+     * Returns the flat index of the {@code position}-th cell of {@code unit}: left to
+     * right in a row, top to bottom in a column, row-major in a box.
+     */
+    public int getUnitCell(int unit, int position) {
+        return geometry.unitCells[unit * geometry.size + position];
+    }
+
+    /**
+     * Mask of the digits placed in {@code unit}.
+     */
+    public long getUnitMask(int unit) {
+        return unitMasks[unit];
+    }
+
+    /**
+     * Writes the candidates of every cell of {@code unit} into {@code target}, in
+     * {@link #getUnitCell} order; filled cells get 0. Same masks as
+     * {@link #candidatesMaskAt} for the empty cells, computed in one pass.
+     */
+    public void unitCandidates(int unit, long[] target) {
+        geometry.candidateEngine.unitCandidates(this, unit, target);
+    }
+
+    /**
+     * Returns whether {@code grid} is a complete, valid solution: every cell holds a
+     * digit of its board size and no row, column or box repeats one. The grid's side
+     * must be 4, 9, 16, 25 or 36. Cheaper than building a board from it, and
+     * vectorized on large boards.
+     */
+    public static boolean isSolution(int[][] grid) {
+        return geometryForSide(grid == null ? 0 : grid.length).solutionEngine.isSolution(grid);
     }
 
 
     public int getValue(int row, int column) {
         validateCoordinates(row, column);
-        return grid[row][column];
+        return cells[getIndex(row, column)];
+    }
+
+    public int getValueAt(int index) {
+        validateIndex(index);
+        return cells[index];
     }
 
 
     public void setValue(int row, int column, int value) {
         validateCoordinates(row, column);
+        setValueAt(getIndex(row, column), value);
+    }
+
+    public void setValueAt(int index, int value) {
+        validateIndex(index);
         validateDigitRange(value);
 
-        if (value != 0 && !isValidMove(row, column, value)) {
+        if (value != 0 && (availableDigits(index) & digitBit(value)) == 0) {
             throw new IllegalArgumentException(
                     String.format(
                             "Invalid move: digit %d at (%d, %d) violates Sudoku rules.",
-                            value, row, column));
+                            value, getRow(index), getColumn(index)));
         }
 
-        grid[row][column] = value;
+        remove(index);
+        if (value != 0) {
+            place(index, value);
+        }
     }
 
 
     public void clearCell(int row, int column) {
         validateCoordinates(row, column);
-        grid[row][column] = 0;
+        remove(getIndex(row, column));
+    }
+
+    public void clearCellAt(int index) {
+        validateIndex(index);
+        remove(index);
+    }
+
+
+    // Unchecked access for solver inner loops, which only ever place a candidate digit
+    // in a cell they picked themselves. These skip the index, range and rule checks of
+    // the public methods above; a call outside their contract is not detected and
+    // leaves the board's masks and counters inconsistent.
+
+    /**
+     * {@link #getValueAt} without the index check.
+     */
+    public int getValueAtUnchecked(int index) {
+        return cells[index];
+    }
+
+    /**
+     * {@link #candidatesMaskAt} without the index check.
+     */
+    public long candidatesMaskAtUnchecked(int index) {
+        return availableDigits(index);
+    }
+
+    /**
+     * Sets cell {@code index} to {@code digit}, replacing any value it holds, like
+     * {@link #setValueAt}; the caller has taken {@code digit} from the cell's
+     * {@link #candidatesMaskAtUnchecked candidates}. Nothing is checked.
+     */
+    public void setValueAtUnchecked(int index, int digit) {
+        remove(index);
+        place(index, digit);
+    }
+
+    /**
+     * {@link #clearCellAt} without the index check.
+     */
+    public void clearCellAtUnchecked(int index) {
+        remove(index);
     }
 
 
     public boolean isCellEmpty(int row, int column) {
         validateCoordinates(row, column);
-        return grid[row][column] == 0;
+        return cells[getIndex(row, column)] == 0;
     }
 
 
     public boolean isValidMove(int row, int column, int value) {
         validateCoordinates(row, column);
 
-        if (value < 1 || value > SIZE) {
+        if (value < 1 || value > geometry.size) {
             return false; // 0 is not a valid "move"; it's a clear operation
         }
 
-        // Check row
-        for (int c = 0; c < SIZE; c++) {
-            if (c != column && grid[row][c] == value) {
-                return false;
-            }
-        }
+        return (availableDigits(getIndex(row, column)) & digitBit(value)) != 0;
+    }
 
-        // Check column
-        for (int r = 0; r < SIZE; r++) {
-            if (r != row && grid[r][column] == value) {
-                return false;
-            }
-        }
 
-        // Check 3x3 subgrid
-        int subgridRowStart = (row / SUBGRID_SIZE) * SUBGRID_SIZE;
-        int subgridColStart = (column / SUBGRID_SIZE) * SUBGRID_SIZE;
+    /**
+     * Returns the digits that can legally be placed at the given cell as a bit mask
+     * (bit {@code d - 1} set for digit {@code d}). The cell's own current value is
+     * ignored, so for a filled cell the mask describes what it could be changed to.
+     */
+    public long candidatesMask(int row, int column) {
+        validateCoordinates(row, column);
+        return availableDigits(getIndex(row, column));
+    }
 
-        for (int r = subgridRowStart; r < subgridRowStart + SUBGRID_SIZE; r++) {
-            for (int c = subgridColStart; c < subgridColStart + SUBGRID_SIZE; c++) {
-                if ((r != row || c != column) && grid[r][c] == value) {
-                    return false;
-                }
-            }
-        }
+    /**
+     * Same as {@link #candidatesMask(int, int)} for a flat cell index.
+     */
+    public long candidatesMaskAt(int index) {
+        validateIndex(index);
+        return availableDigits(index);
+    }
 
-        return true;
+    /**
+     * Returns the mask bit used for the given digit in {@link #candidatesMask(int, int)}.
+     */
+    public static long digitBit(int digit) {
+        return 1L << (digit - 1);
+    }
+
+    private long availableDigits(int index) {
+        Geometry g = geometry;
+        long used = unitMasks[g.rowOf[index]]
+                | unitMasks[g.size + g.columnOf[index]]
+                | unitMasks[2 * g.size + g.boxOf[index]];
+        int current = cells[index];
+        if (current != 0) {
+            // Units never hold duplicates, so this cell is the only source of its own bit.
+            used &= ~digitBit(current);
+        }
+        return ~used & g.allDigits;
     }
 
 
     public boolean isComplete() {
-        // Check for any empty cells first
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                if (grid[row][col] == 0) {
-                    return false;
-                }
-            }
-        }
+        // Units never hold duplicate digits, so a board with no empty cell has every
+        // digit in every row, column and box.
+        return emptyCellCount == 0;
+    }
 
-        // Check all rows
-        for (int row = 0; row < SIZE; row++) {
-            if (!isRowValid(row)) {
-                return false;
-            }
-        }
 
-        // Check all columns
-        for (int col = 0; col < SIZE; col++) {
-            if (!isColumnValid(col)) {
-                return false;
-            }
-        }
+    public int getEmptyCellCount() {
+        return emptyCellCount;
+    }
 
-        // Check all 3x3 subgrids
-        for (int row = 0; row < SIZE; row += SUBGRID_SIZE) {
-            for (int col = 0; col < SIZE; col += SUBGRID_SIZE) {
-                if (!isSubgridValid(row, col)) {
-                    return false;
-                }
+    /**
+     * Returns the 64-bit Zobrist hash of the cell values: the XOR of one fixed random
+     * key per filled (cell, digit). It is updated in O(1) by every placement and
+     * removal, and equal boards always have equal hashes, however they were filled.
+     * The empty board hashes to 0.
+     */
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
+
+    /**
+     * Returns the flat index of the first empty cell in row-major order, or -1 if the
+     * board is full. The allocation-free form of {@link #findNextEmptyCell}, for search loops.
+     */
+    public int findNextEmptyCellIndex() {
+        if (emptyCellCount == 0) {
+            return -1;
+        }
+        for (int index = 0; index < cells.length; index++) {
+            if (cells[index] == 0) {
+                return index;
             }
         }
-
-        return true;
+        return -1;
     }
 
-
     public Optional<CellPosition> findNextEmptyCell() {
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                if (grid[row][col] == 0) {
-                    return Optional.of(new CellPosition(row, col));
-                }
-            }
+        int index = findNextEmptyCellIndex();
+        if (index < 0) {
+            return Optional.empty();
         }
-        return Optional.empty();
+        return Optional.of(CellPosition.of(getRow(index), getColumn(index)));
     }
 
     @Override
@@ -179,99 +425,160 @@ public class SudokuBoard implements Cloneable {
 
 
     public int[][] toArray() {
-        int[][] copy = new int[SIZE][SIZE];
-        for (int row = 0; row < SIZE; row++) {
-            System.arraycopy(grid[row], 0, copy[row], 0, SIZE);
-        }
+        int[][] copy = new int[geometry.size][geometry.size];
+        copyTo(copy);
         return copy;
     }
 
-    private void validateCoordinates(int row, int column) {
-        if (row < 0 || row >= SIZE || column < 0 || column >= SIZE) {
-            throw new IllegalArgumentException(
-                    String.format(
-                            "Row and column indices must be in [0, %d). Got row=%d, column=%d.",
-                            SIZE, row, column));
-        }
+    /**
+     * Returns the cell values in row-major order.
+     */
+    public int[] toCellArray() {
+        int[] copy = new int[cells.length];
+        copyTo(copy);
+        return copy;
     }
 
-    private void validateDigitRange(int value) {
-        if (value < 0 || value > SIZE) {
-            throw new IllegalArgumentException(
-                    String.format("Cell value must be in [0, %d]. Got: %d.", SIZE, value));
+    /**
+     * Writes the cell values into an existing array of the board's size.
+     */
+    public void copyTo(int[][] target) {
+        int size = geometry.size;
+        for (int row = 0; row < size; row++) {
+            int offset = row * size;
+            for (int col = 0; col < size; col++) {
+                target[row][col] = cells[offset + col];
+            }
         }
     }
 
+    /**
+     * Writes the cell values into an existing row-major array with one value per cell.
+     */
+    public void copyTo(int[] target) {
+        for (int index = 0; index < cells.length; index++) {
+            target[index] = cells[index];
+        }
+    }
 
-    private boolean isRowValid(int row) {
-        boolean[] seen = new boolean[SIZE + 1]; // index 1-9 used
-        for (int col = 0; col < SIZE; col++) {
-            int value = grid[row][col];
-            if (value == 0) {
-                return false; // for isComplete(), rows must be fully filled
+    private void loadRows(int[][] values) {
+        int size = geometry.size;
+        for (int row = 0; row < size; row++) {
+            if (values[row] == null || values[row].length != size) {
+                throw new IllegalArgumentException(
+                        String.format("Initial board must be a non-null %dx%d array.", size, size));
             }
-            if (value < 1 || value > SIZE || seen[value]) {
-                return false;
+            for (int col = 0; col < size; col++) {
+                loadGiven(getIndex(row, col), values[row][col]);
             }
-            seen[value] = true;
         }
-        return true;
     }
 
-
-    private boolean isColumnValid(int column) {
-        boolean[] seen = new boolean[SIZE + 1];
-        for (int row = 0; row < SIZE; row++) {
-            int value = grid[row][column];
-            if (value == 0) {
-                return false;
-            }
-            if (value < 1 || value > SIZE || seen[value]) {
-                return false;
+    private void loadGiven(int index, int value) {
+        validateDigitRange(value);
+        if (value != 0) {
+            if ((availableDigits(index) & digitBit(value)) == 0) {
+                throw new IllegalArgumentException(
+                        String.format(
+                                "Initial puzzle is invalid: digit %d at (%d, %d) violates Sudoku rules.",
+                                value, getRow(index), getColumn(index)));
             }
-            seen[value] = true;
+            place(index, value);
         }
-        return true;
     }
 
+    private void place(int index, int value) {
+        Geometry g = geometry;
+        long bit = digitBit(value);
+        cells[index] = (byte) value;
+        emptyCellCount--;
+        zobristHash ^= g.zobristKeys[index * g.size + value - 1];
+        unitMasks[g.rowOf[index]] |= bit;
+        unitMasks[g.size + g.columnOf[index]] |= bit;
+        unitMasks[2 * g.size + g.boxOf[index]] |= bit;
+    }
 
-    private boolean isSubgridValid(int startRow, int startCol) {
-        boolean[] seen = new boolean[SIZE + 1];
-        for (int row = startRow; row < startRow + SUBGRID_SIZE; row++) {
-            for (int col = startCol; col < startCol + SUBGRID_SIZE; col++) {
-                int value = grid[row][col];
-                if (value == 0) {
-                    return false;
-                }
-                if (value < 1 || value > SIZE || seen[value]) {
-                    return false;
-                }
-                seen[value] = true;
-            }
+    private void remove(int index) {
+        int value = cells[index];
+        if (value == 0) {
+            return;
+        }
+        Geometry g = geometry;
+        long clear = ~digitBit(value);
+        cells[index] = 0;
+        emptyCellCount++;
+        zobristHash ^= g.zobristKeys[index * g.size + value - 1];
+        unitMasks[g.rowOf[index]] &= clear;
+        unitMasks[g.size + g.columnOf[index]] &= clear;
+        unitMasks[2 * g.size + g.boxOf[index]] &= clear;
+    }
+
+    void validateUnit(int unit, long[] target) {
+        if (unit < 0 || unit >= unitMasks.length) {
+            throw new IllegalArgumentException(
+                    String.format("Unit must be in [0, %d). Got: %d.", unitMasks.length, unit));
+        }
+        if (target == null || target.length < geometry.size) {
+            throw new IllegalArgumentException(
+                    String.format("Target must hold at least %d masks.", geometry.size));
+        }
+    }
+
+    private void validateCoordinates(int row, int column) {
+        if (row < 0 || row >= geometry.size || column < 0 || column >= geometry.size) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Row and column indices must be in [0, %d). Got row=%d, column=%d.",
+                            geometry.size, row, column));
+        }
+    }
+
+    private void validateIndex(int index) {
+        if (index < 0 || index >= cells.length) {
+            throw new IllegalArgumentException(
+                    String.format("Cell index must be in [0, %d). Got: %d.", cells.length, index));
+        }
+    }
+
+    private void validateDigitRange(int value) {
+        if (value < 0 || value > geometry.size) {
+            throw new IllegalArgumentException(
+                    String.format("Cell value must be in [0, %d]. Got: %d.", geometry.size, value));
         }
-        return true;
     }
 
+
     @Override
     public String toString() {
+        int size = geometry.size;
+        int boxSize = geometry.boxSize;
+        // One character per cell up to 9x9; wider boards right-align numbers in columns.
+        int width = size < 10 ? 1 : 2;
         StringBuilder builder = new StringBuilder();
 
-        for (int row = 0; row < SIZE; row++) {
-            if (row > 0 && row % SUBGRID_SIZE == 0) {
-                builder.append("------+------+------").append(System.lineSeparator());
+        for (int row = 0; row < size; row++) {
+            if (row > 0 && row % boxSize == 0) {
+                for (int box = 0; box < boxSize; box++) {
+                    if (box > 0) {
+                        builder.append("+");
+                    }
+                    builder.append("-".repeat(boxSize * (width + 1)));
+                }
+                builder.append(System.lineSeparator());
             }
 
-            for (int col = 0; col < SIZE; col++) {
-                if (col > 0 && col % SUBGRID_SIZE == 0) {
+            for (int col = 0; col < size; col++) {
+                if (col > 0 && col % boxSize == 0) {
                     builder.append("|");
                 }
-                int value = grid[row][col];
-                builder.append(value == 0 ? "." : Integer.toString(value));
-                if (col < SIZE - 1) {
+                int value = cells[getIndex(row, col)];
+                String text = value == 0 ? "." : Integer.toString(value);
+                builder.append(" ".repeat(width - text.length())).append(text);
+                if (col < size - 1) {
                     builder.append(" ");
                 }
             }
-            if (row < SIZE - 1) {
+            if (row < size - 1) {
                 builder.append(System.lineSeparator());
             }
         }
@@ -288,11 +595,109 @@ public class SudokuBoard implements Cloneable {
             return false;
         }
         SudokuBoard that = (SudokuBoard) obj;
-        return Arrays.deepEquals(this.grid, that.grid);
+        return Arrays.equals(this.cells, that.cells);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(grid);
+        return Long.hashCode(zobristHash);
+    }
+
+    private static Geometry geometryFor(int boxSize) {
+        if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("Box size must be in [%d, %d]. Got: %d.", MIN_BOX_SIZE, MAX_BOX_SIZE, boxSize));
+        }
+        synchronized (GEOMETRIES) {
+            if (GEOMETRIES[boxSize] == null) {
+                GEOMETRIES[boxSize] = new Geometry(boxSize);
+            }
+            return GEOMETRIES[boxSize];
+        }
+    }
+
+    static Geometry geometryForSide(int side) {
+        if (side == SIZE) {
+            return STANDARD;
+        }
+        for (int boxSize = MIN_BOX_SIZE; boxSize <= MAX_BOX_SIZE; boxSize++) {
+            if (boxSize * boxSize == side) {
+                return geometryFor(boxSize);
+            }
+        }
+        throw new IllegalArgumentException("Initial board must be a non-null square array of side 4, 9, 16, 25 or 36.");
+    }
+
+    private static Geometry geometryForCellCount(int cellCount) {
+        for (int boxSize = MIN_BOX_SIZE; boxSize <= MAX_BOX_SIZE; boxSize++) {
+            int side = boxSize * boxSize;
+            if (side * side == cellCount) {
+                return geometryForSide(side);
+            }
+        }
+        throw new IllegalArgumentException("Initial cells must be a non-null array of 16, 81, 256, 625 or 1296 values.");
+    }
+
+    /**
+     * Lookup tables shared by all boards of one box order, so the hot path never divides.
+     */
+    static final class Geometry {
+
+        final int boxSize;
+        final int size;
+        final int cellCount;
+        final long allDigits;
+
+        final byte[] rowOf;
+        final byte[] columnOf;
+        final byte[] boxOf;
+
+        // Cells of every unit, at unit * size + position.
+        final int[] unitCells;
+
+        // One random key per (cell, digit), at index * size + digit - 1. Fixed seed, so hashes are stable across runs.
+        final long[] zobristKeys;
+
+        final CandidateEngine candidateEngine;
+        final CandidateEngine solutionEngine;
+
+        Geometry(int boxSize) {
+            this.boxSize = boxSize;
+            this.size = boxSize * boxSize;
+            this.cellCount = size * size;
+            this.allDigits = (1L << size) - 1;
+            this.rowOf = new byte[cellCount];
+            this.columnOf = new byte[cellCount];
+            this.boxOf = new byte[cellCount];
+            for (int index = 0; index < cellCount; index++) {
+                int row = index / size;
+                int column = index % size;
+                rowOf[index] = (byte) row;
+                columnOf[index] = (byte) column;
+                boxOf[index] = (byte) ((row / boxSize) * boxSize + column / boxSize);
+            }
+
+            this.unitCells = new int[3 * size * size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    int boxRow = (i / boxSize) * boxSize + j / boxSize;
+                    int boxColumn = (i % boxSize) * boxSize + j % boxSize;
+                    unitCells[i * size + j] = i * size + j;
+                    unitCells[(size + i) * size + j] = j * size + i;
+                    unitCells[(2 * size + i) * size + j] = boxRow * size + boxColumn;
+                }
+            }
+
+            this.zobristKeys = new long[cellCount * size];
+            SplittableRandom random = new SplittableRandom(0x5D0C0B0A2DL + boxSize - SUBGRID_SIZE);
+            for (int key = 0; key < zobristKeys.length; key++) {
+                zobristKeys[key] = random.nextLong();
+            }
+
+            this.candidateEngine = CandidateEngine.scalar();
+            this.solutionEngine = size >= VECTOR_MIN_SIZE
+                    ? CandidateEngine.vector().orElse(CandidateEngine.scalar())
+                    : CandidateEngine.scalar();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package solver;
+
+import model.SudokuBoard;
+
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Splits only where parallelism can pay for the fork: the node must branch,
+ * enough of the board must still be empty for the subtrees to be worth a task,
+ * and the current worker must not already have a surplus of queued tasks
+ * waiting to be stolen ({@link ForkJoinTask#getSurplusQueuedTaskCount()}).
+ *
+ * Easy puzzles are usually solved before any of these hold, so they pay no
+ * fork overhead; hard ones keep splitting for as long as workers run dry.
+ */
+public class AdaptiveSplitPolicy implements SplitPolicy {
+
+    private static final int DEFAULT_MIN_EMPTY_CELLS = 30;
+    private static final int DEFAULT_MAX_SURPLUS_TASKS = 3;
+    private static final int DEFAULT_MAX_DEPTH = 12;
+
+    private final int minEmptyCells;
+    private final int maxSurplusTasks;
+    private final int maxDepth;
+
+    public AdaptiveSplitPolicy() {
+        this(DEFAULT_MIN_EMPTY_CELLS, DEFAULT_MAX_SURPLUS_TASKS, DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * @param minEmptyCells   do not split boards with fewer empty cells than this
+     * @param maxSurplusTasks do not split while the worker has more queued tasks than this beyond what others are stealing
+     * @param maxDepth        hard cap on split levels
+     */
+    public AdaptiveSplitPolicy(int minEmptyCells, int maxSurplusTasks, int maxDepth) {
+        if (minEmptyCells < 0 || maxSurplusTasks < 0 || maxDepth < 0) {
+            throw new IllegalArgumentException("Adaptive split thresholds must be >= 0");
+        }
+        this.minEmptyCells = minEmptyCells;
+        this.maxSurplusTasks = maxSurplusTasks;
+        this.maxDepth = maxDepth;
+    }
+
+    @Override
+    public boolean shouldSplit(SudokuBoard board, int depth, int candidateCount) {
+        if (candidateCount < 2 || depth >= maxDepth) {
+            return false;
+        }
+        if (board.getEmptyCellCount() < minEmptyCells) {
+            return false;
+        }
+        // Outside a pool there is nobody to steal work, so the surplus check only applies inside one.
+        return !ForkJoinTask.inForkJoinPool()
+                || ForkJoinTask.getSurplusQueuedTaskCount() <= maxSurplusTasks;
+    }
+}
@@ -0,0 +1,169 @@
+package solver;
+
+import model.SudokuBoard;
+import solver.tasks.BudgetedSearchTask;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Solves many independent puzzles for makespan rather than single-puzzle latency.
+ *
+ * Every puzzle starts as one sequential search; the parallelism comes from
+ * solving different puzzles on different workers. A puzzle that is still
+ * unsolved after {@code splitNodeBudget} nodes splits its remaining search into
+ * stealable subtasks (see {@link BudgetedSearchTask}), so workers that run out
+ * of puzzles help with the stragglers instead of idling behind them. Each
+ * worker thread keeps one board per board size that it reloads for every puzzle
+ * of that size.
+ */
+public class BatchSudokuSolver {
+
+    /** Node budget after which a puzzle's search is split; well above what typical puzzles need under MRV. */
+    public static final long DEFAULT_SPLIT_NODE_BUDGET = 10_000;
+
+    private final ForkJoinPool pool;
+
+    private final CellSelectionStrategy cellSelection;
+
+    private final long splitNodeBudget;
+
+    // Per thread, one reusable board per box order, made on first use.
+    private final ThreadLocal<SudokuBoard[]> scratchBoards =
+            ThreadLocal.withInitial(() -> new SudokuBoard[SudokuBoard.MAX_BOX_SIZE + 1]);
+
+    public BatchSudokuSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BatchSudokuSolver(ForkJoinPool pool) {
+        this(new MinimumRemainingValuesStrategy(), pool, DEFAULT_SPLIT_NODE_BUDGET);
+    }
+
+    /**
+     * @param splitNodeBudget nodes a search may visit before it splits;
+     *                        {@code Long.MAX_VALUE} never splits a puzzle
+     */
+    public BatchSudokuSolver(CellSelectionStrategy cellSelection, ForkJoinPool pool, long splitNodeBudget) {
+        if (cellSelection == null) {
+            throw new IllegalArgumentException("Cell selection strategy must not be null.");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null.");
+        }
+        if (splitNodeBudget < 1) {
+            throw new IllegalArgumentException("splitNodeBudget must be >= 1");
+        }
+        this.pool = pool;
+        this.cellSelection = cellSelection;
+        this.splitNodeBudget = splitNodeBudget;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Solves every puzzle in-place on the solver's pool.
+     * Puzzles that are malformed or break the Sudoku rules count as not solved
+     * instead of failing the whole batch.
+     * @return one flag per puzzle, in input order: true if that puzzle was solved
+     */
+    public boolean[] solveAll(List<int[][]> puzzles) {
+        if (puzzles == null) {
+            throw new IllegalArgumentException("Puzzles must not be null.");
+        }
+        boolean[] solved = new boolean[puzzles.size()];
+        if (solved.length == 0) {
+            return solved;
+        }
+        // A few chunks per worker keeps everyone busy even when some puzzles are much harder.
+        int grain = Math.max(1, solved.length / (pool.getParallelism() * 8));
+        pool.invoke(new BatchTask(puzzles, solved, 0, solved.length, grain));
+        return solved;
+    }
+
+    /**
+     * Lazily solves each puzzle in-place, in parallel on the common pool when the
+     * caller's terminal operation runs. Encounter order is preserved.
+     * @return per puzzle, the solved array, or empty if it could not be solved
+     */
+    public Stream<Optional<int[][]>> solveAll(Stream<int[][]> puzzles) {
+        if (puzzles == null) {
+            throw new IllegalArgumentException("Puzzles must not be null.");
+        }
+        return puzzles.parallel().map(puzzle -> solveOne(puzzle) ? Optional.of(puzzle) : Optional.empty());
+    }
+
+    // Solves one puzzle, starting on the calling thread's scratch board of the puzzle's size.
+    private boolean solveOne(int[][] puzzle) {
+        SudokuBoard board;
+        try {
+            board = scratchBoardFor(puzzle);
+            board.load(puzzle);
+        } catch (IllegalArgumentException invalidPuzzle) {
+            return false;
+        }
+        AtomicReference<SudokuBoard> solution = new AtomicReference<>();
+        // Runs here; only splits of a puzzle over budget are forked. While this thread
+        // waits for those it may pick up another puzzle and reload the scratch board,
+        // which is safe because a split search no longer touches its root board.
+        new BudgetedSearchTask(board, solution, CancellationToken.create(), cellSelection, splitNodeBudget).invoke();
+        SudokuBoard solved = solution.get();
+        if (solved == null) {
+            return false;
+        }
+        solved.copyTo(puzzle);
+        return true;
+    }
+
+    private SudokuBoard scratchBoardFor(int[][] puzzle) {
+        int side = puzzle == null ? 0 : puzzle.length;
+        int boxSize = (int) Math.round(Math.sqrt(side));
+        if (boxSize * boxSize != side || boxSize < SudokuBoard.MIN_BOX_SIZE || boxSize > SudokuBoard.MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("Unsupported board size: " + side + " rows.");
+        }
+        SudokuBoard[] boards = scratchBoards.get();
+        if (boards[boxSize] == null) {
+            boards[boxSize] = SudokuBoard.empty(boxSize);
+        }
+        return boards[boxSize];
+    }
+
+    /**
+     * Solves puzzles {@code [from, to)}, halving the range until it is at most {@code grain} long.
+     */
+    private class BatchTask extends RecursiveAction {
+
+        private final List<int[][]> puzzles;
+        private final boolean[] solved;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        BatchTask(List<int[][]> puzzles, boolean[] solved, int from, int to, int grain) {
+            this.puzzles = puzzles;
+            this.solved = solved;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int i = from; i < to; i++) {
+                    solved[i] = solveOne(puzzles.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(puzzles, solved, from, middle, grain),
+                      new BatchTask(puzzles, solved, middle, to, grain));
+        }
+    }
+}
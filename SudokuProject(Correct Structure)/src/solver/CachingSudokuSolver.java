@@ -0,0 +1,215 @@
+package solver;
+
+import model.CanonicalForm;
+import model.SudokuBoard;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator that remembers the outcome of every puzzle it solves, keyed by the
+ * puzzle's {@link CanonicalForm}. A puzzle that is a rotation, transposition,
+ * band or stack permutation or digit relabeling of one seen before is answered
+ * from the cache: the stored canonical solution is mapped back through the
+ * inverse transform instead of solving again. Puzzles proven unsolvable are
+ * cached too; stopped searches are not.
+ *
+ * Computing a canonical form typically costs a few hundred microseconds, more
+ * than an easy puzzle takes to solve, so exact repeats are looked up first under
+ * the puzzle's own cells. Both kinds of key map a puzzle to one of its solutions,
+ * so they can share one map: a puzzle that happens to be canonical already is the
+ * same entry.
+ *
+ * The canonical search is capped at {@value #CANONICAL_STEP_LIMIT} steps (a
+ * couple of milliseconds); the few puzzles that need more, such as nearly complete
+ * grids, are cached under their exact cells alone, as are boards larger than 9x9,
+ * for which canonical forms are not defined.
+ *
+ * The cache holds at most {@code capacity} entries and evicts the least recently
+ * used one. It is safe to share between threads; two threads missing the same
+ * puzzle at once both solve it.
+ */
+public class CachingSudokuSolver implements SudokuSolver {
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    // Search steps allowed for a canonical form; random puzzles with 17 to 36 givens need at most ~35,000.
+    private static final long CANONICAL_STEP_LIMIT = 50_000;
+
+    // Cached value for puzzles proven to have no solution.
+    private static final int[][] UNSOLVABLE = new int[0][];
+
+    private final SudokuSolver delegate;
+
+    private final Map<String, int[][]> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingSudokuSolver(SudokuSolver delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    public CachingSudokuSolver(SudokuSolver delegate, int capacity) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate solver must not be null.");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be >= 1");
+        }
+        this.delegate = delegate;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, int[][]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public boolean solve(int[][] board) {
+        return solve(board, CancellationToken.NONE).isSolved();
+    }
+
+    @Override
+    public SolveResult solve(int[][] board, CancellationToken token) {
+        if (board == null) {
+            throw new IllegalArgumentException("Board must not be null.");
+        }
+
+        PhaseTimer timer = new PhaseTimer();
+        timer.start(SolveResult.Phase.SETUP);
+        // Rejects malformed input before it can reach the cache.
+        boolean standard = new SudokuBoard(board).getSize() == SudokuBoard.SIZE;
+
+        String exactKey = keyOf(board);
+        int[][] cached = get(exactKey);
+        if (cached != null) {
+            hits.increment();
+            return cachedResult(cached, board, timer, null);
+        }
+
+        CanonicalForm form = standard ? CanonicalForm.of(board, CANONICAL_STEP_LIMIT) : null;
+        if (form != null) {
+            cached = get(form.getKey());
+            if (cached != null) {
+                hits.increment();
+                SolveResult result = cachedResult(cached, board, timer, form);
+                put(exactKey, cached == UNSOLVABLE ? UNSOLVABLE : copyOf(board));
+                return result;
+            }
+        }
+
+        misses.increment();
+        SolveResult result = delegate.solve(board, token);
+        if (result.getStatus() == SolveStatus.SOLVED) {
+            if (form != null) {
+                put(form.getKey(), form.toCanonical(board));
+            }
+            put(exactKey, copyOf(board));
+        } else if (result.getStatus() == SolveStatus.UNSOLVABLE) {
+            if (form != null) {
+                put(form.getKey(), UNSOLVABLE);
+            }
+            put(exactKey, UNSOLVABLE);
+        }
+        return result;
+    }
+
+    // Serves a cache entry, mapping it back through {@code form} unless it was stored under the exact puzzle.
+    private SolveResult cachedResult(int[][] cached, int[][] board, PhaseTimer timer, CanonicalForm form) {
+        if (cached == UNSOLVABLE) {
+            return new SolveResult(SolveStatus.UNSOLVABLE, null, new SearchStatistics(), timer);
+        }
+        timer.start(SolveResult.Phase.COPY_BACK);
+        if (form == null) {
+            for (int row = 0; row < board.length; row++) {
+                System.arraycopy(cached[row], 0, board[row], 0, board.length);
+            }
+        } else {
+            form.fromCanonical(cached, board);
+        }
+        return new SolveResult(SolveStatus.SOLVED, new SudokuBoard(board), new SearchStatistics(), timer);
+    }
+
+    @Override
+    public boolean isValid(int[][] board, int row, int col, int num) {
+        return delegate.isValid(board, row, col, num);
+    }
+
+    public SudokuSolver getDelegate() {
+        return delegate;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Fraction of solves answered from the cache, or 0 before the first solve.
+     */
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private int[][] get(String key) {
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    private void put(String key, int[][] value) {
+        synchronized (cache) {
+            cache.put(key, value);
+        }
+    }
+
+    // One char per cell; values above 9 run on past '9'.
+    private static String keyOf(int[][] board) {
+        int side = board.length;
+        char[] key = new char[side * side];
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                key[row * side + col] = (char) ('0' + board[row][col]);
+            }
+        }
+        return new String(key);
+    }
+
+    private static int[][] copyOf(int[][] board) {
+        int[][] copy = new int[board.length][];
+        for (int row = 0; row < board.length; row++) {
+            copy[row] = board[row].clone();
+        }
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "CachingSudokuSolver{" +
+                "delegate=" + delegate.getClass().getSimpleName() +
+                ", size=" + size() +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                '}';
+    }
+}
@@ -0,0 +1,109 @@
+package solver;
+
+import java.time.Duration;
+
+/**
+ * Cooperative stop signal for a solve: either cancelled explicitly or expired
+ * at a deadline. Solvers poll it at node boundaries; {@link #shouldStop(long)}
+ * only looks at the clock once every {@value #CHECK_INTERVAL} nodes, so the
+ * check costs next to nothing on the hot path.
+ *
+ * A child token ({@link #newChild()}) stops when its parent does, but can also
+ * be cancelled on its own, which parallel solvers use to stop sibling branches
+ * once one of them has found a solution.
+ */
+public final class CancellationToken {
+
+    /** Number of nodes between two checks in {@link #shouldStop(long)}; a power of two. */
+    public static final int CHECK_INTERVAL = 64;
+
+    /** A token that never stops. */
+    public static final CancellationToken NONE = new CancellationToken(null, false, 0L);
+
+    private static final int ACTIVE = 0;
+    private static final int CANCELLED = 1;
+    private static final int TIMED_OUT = 2;
+
+    private final CancellationToken parent;
+    private final boolean hasDeadline;
+    private final long deadlineNanos;
+    private volatile int state = ACTIVE;
+
+    private CancellationToken(CancellationToken parent, boolean hasDeadline, long deadlineNanos) {
+        this.parent = parent;
+        this.hasDeadline = hasDeadline;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a token without a deadline that stops only when {@link #cancel()} is called.
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(null, false, 0L);
+    }
+
+    /**
+     * Creates a token that times out once {@code timeout} has elapsed from now.
+     */
+    public static CancellationToken withTimeout(Duration timeout) {
+        if (timeout == null || timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout must be non-null and non-negative.");
+        }
+        return new CancellationToken(null, true, System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Creates a token that stops when this one does or when it is cancelled itself.
+     */
+    public CancellationToken newChild() {
+        return new CancellationToken(this, false, 0L);
+    }
+
+    public void cancel() {
+        if (this == NONE) {
+            throw new IllegalStateException("CancellationToken.NONE cannot be cancelled.");
+        }
+        if (state == ACTIVE) {
+            state = CANCELLED;
+        }
+    }
+
+    public boolean isCancelled() {
+        if (state != ACTIVE) {
+            return true;
+        }
+        if (hasDeadline && System.nanoTime() - deadlineNanos >= 0) {
+            state = TIMED_OUT;
+            return true;
+        }
+        if (parent != null && parent.isCancelled()) {
+            state = parent.state;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the token stopped because a deadline (its own or a parent's) passed.
+     */
+    public boolean isTimedOut() {
+        return isCancelled() && state == TIMED_OUT;
+    }
+
+    /**
+     * Returns true once a check on this token has seen it stop. Reads a single
+     * volatile field and never the clock, so searches can call it after every
+     * failed branch to unwind quickly once {@link #shouldStop(long)} fired.
+     */
+    public boolean hasStopped() {
+        return state != ACTIVE;
+    }
+
+    /**
+     * Cheap check for search loops: consults {@link #isCancelled()} only when
+     * {@code nodeCount} is a multiple of {@link #CHECK_INTERVAL}.
+     */
+    public boolean shouldStop(long nodeCount) {
+        return (nodeCount & (CHECK_INTERVAL - 1)) == 0 && isCancelled();
+    }
+}
@@ -0,0 +1,16 @@
+package solver;
+
+import model.SudokuBoard;
+
+/**
+ * Decides which empty cell a backtracking search branches on next.
+ */
+public interface CellSelectionStrategy {
+
+    /**
+     * Pick the next cell to branch on.
+     * @param board current search state
+     * @return flat index of an empty cell, or -1 if the board has no empty cell
+     */
+    int selectCell(SudokuBoard board);
+}
@@ -0,0 +1,106 @@
+package solver;
+
+import model.SudokuBoard;
+import solver.tasks.SearchCompleter;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Parallel solver built on {@link SearchCompleter}: workers never block in
+ * {@code join()}, and the call returns as soon as any branch finds a solution
+ * rather than after every sibling has been joined.
+ */
+public class CountedCompleterSudokuSolver implements SudokuSolver {
+
+    private final SplitPolicy splitPolicy;
+
+    private final CellSelectionStrategy cellSelection;
+
+    private final ForkJoinPool pool;
+
+    private final SequentialSudokuSolver validityChecker = new SequentialSudokuSolver();
+
+    public CountedCompleterSudokuSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public CountedCompleterSudokuSolver(ForkJoinPool pool) {
+        this(new AdaptiveSplitPolicy(), new MinimumRemainingValuesStrategy(), pool);
+    }
+
+    public CountedCompleterSudokuSolver(SplitPolicy splitPolicy, CellSelectionStrategy cellSelection, ForkJoinPool pool) {
+        if (splitPolicy == null) {
+            throw new IllegalArgumentException("Split policy must not be null.");
+        }
+        if (cellSelection == null) {
+            throw new IllegalArgumentException("Cell selection strategy must not be null.");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null.");
+        }
+        this.splitPolicy = splitPolicy;
+        this.cellSelection = cellSelection;
+        this.pool = pool;
+    }
+
+    @Override
+    public boolean solve(int[][] board) {
+        return solve(board, CancellationToken.NONE).isSolved();
+    }
+
+    @Override
+    public SolveResult solve(int[][] board, CancellationToken token) {
+        if (board == null) {
+            throw new IllegalArgumentException("Board must not be null.");
+        }
+
+        PhaseTimer timer = new PhaseTimer();
+        timer.start(SolveResult.Phase.SETUP);
+        SudokuBoard modelBoard = new SudokuBoard(board);
+        SearchStatistics statistics = new SearchStatistics();
+
+        timer.start(SolveResult.Phase.SEARCH);
+        SudokuBoard solved = solveBoard(modelBoard, token, statistics);
+        timer.addCpuTime(SolveResult.Phase.SEARCH, statistics.getCpuTimeNanos());
+        if (solved == null) {
+            return new SolveResult(SolveStatus.of(false, token), null, statistics, timer);
+        }
+
+        timer.start(SolveResult.Phase.COPY_BACK);
+        solved.copyTo(board);
+        return new SolveResult(SolveStatus.SOLVED, solved, statistics, timer);
+    }
+
+    @Override
+    public boolean solve(int[] cells) {
+        SudokuBoard solved = solveBoard(new SudokuBoard(cells), CancellationToken.NONE, new SearchStatistics());
+        if (solved == null) {
+            return false;
+        }
+
+        solved.copyTo(cells);
+        return true;
+    }
+
+    // Runs the search and adds the counters of every task that finished into statistics.
+    private SudokuBoard solveBoard(SudokuBoard modelBoard, CancellationToken token, SearchStatistics statistics) {
+        if (token.isCancelled()) {
+            return null;
+        }
+        AtomicReference<SudokuBoard> solution = new AtomicReference<>();
+        SearchStatistics shared = new SearchStatistics();
+        SudokuBoard solved = pool.invoke(
+                new SearchCompleter(modelBoard, solution, token.newChild(), splitPolicy, cellSelection, shared));
+        // Tasks still draining after the root completed may report later; their counts are simply missed.
+        synchronized (shared) {
+            statistics.add(shared, 0);
+        }
+        return solved;
+    }
+
+    @Override
+    public boolean isValid(int[][] board, int row, int col, int num) {
+        return validityChecker.isValid(board, row, col, num);
+    }
+}
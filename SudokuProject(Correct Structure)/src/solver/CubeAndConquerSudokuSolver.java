@@ -0,0 +1,309 @@
+package solver;
+
+import model.SudokuBoard;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cube-and-conquer solver: expands the search tree breadth-first until it has a
+ * frontier of subproblems (by default {@value #DEFAULT_SUBPROBLEMS_PER_WORKER}
+ * per worker), then lets the workers pull those partial boards off a shared
+ * queue, most promising first, and search each one sequentially.
+ *
+ * Because every worker keeps pulling until the queue is empty, a worker that
+ * drew easy subproblems simply takes more of them, and the per-subproblem
+ * counters in the {@link FrontierReport} show how uneven the pieces were.
+ */
+public class CubeAndConquerSudokuSolver implements SudokuSolver {
+
+    public static final int DEFAULT_SUBPROBLEMS_PER_WORKER = 8;
+
+    private static final double[] LOG_CANDIDATES = new double[SudokuBoard.MAX_BOX_SIZE * SudokuBoard.MAX_BOX_SIZE + 1];
+
+    static {
+        for (int count = 1; count < LOG_CANDIDATES.length; count++) {
+            LOG_CANDIDATES[count] = Math.log(count);
+        }
+    }
+
+    private final ForkJoinPool pool;
+
+    private final CellSelectionStrategy cellSelection;
+
+    private final int subproblemsPerWorker;
+
+    private final SequentialSudokuSolver sequentialSolver;
+
+    public CubeAndConquerSudokuSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public CubeAndConquerSudokuSolver(ForkJoinPool pool) {
+        this(new MinimumRemainingValuesStrategy(), pool, DEFAULT_SUBPROBLEMS_PER_WORKER);
+    }
+
+    public CubeAndConquerSudokuSolver(CellSelectionStrategy cellSelection, ForkJoinPool pool, int subproblemsPerWorker) {
+        if (cellSelection == null) {
+            throw new IllegalArgumentException("Cell selection strategy must not be null.");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null.");
+        }
+        if (subproblemsPerWorker < 1) {
+            throw new IllegalArgumentException("subproblemsPerWorker must be >= 1");
+        }
+        this.pool = pool;
+        this.cellSelection = cellSelection;
+        this.subproblemsPerWorker = subproblemsPerWorker;
+        this.sequentialSolver = new SequentialSudokuSolver(cellSelection);
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public boolean solve(int[][] board) {
+        return solve(board, CancellationToken.NONE).isSolved();
+    }
+
+    @Override
+    public SolveResult solve(int[][] board, CancellationToken token) {
+        return solveWithReport(board, token).getResult();
+    }
+
+    /**
+     * Same as {@link #solve(int[][], CancellationToken)}, also reporting how the
+     * work was split and how evenly it was spread over the workers.
+     */
+    public FrontierReport solveWithReport(int[][] board, CancellationToken token) {
+        if (board == null) {
+            throw new IllegalArgumentException("Board must not be null.");
+        }
+
+        PhaseTimer timer = new PhaseTimer();
+        timer.start(SolveResult.Phase.SETUP);
+        SudokuBoard modelBoard = new SudokuBoard(board);
+        SearchStatistics statistics = new SearchStatistics();
+        int workerCount = pool.getParallelism();
+
+        timer.start(SolveResult.Phase.FRONTIER);
+        AtomicReference<SudokuBoard> solution = new AtomicReference<>();
+        List<Subproblem> frontier = token.isCancelled()
+                ? new ArrayList<>()
+                : expandFrontier(modelBoard, workerCount * subproblemsPerWorker, solution, statistics);
+        frontier.sort(Comparator.comparingDouble(Subproblem::promise));
+
+        timer.start(SolveResult.Phase.SEARCH);
+        Conquest conquest = new Conquest(frontier, solution, token.newChild(), workerCount, modelBoard.getEmptyCellCount());
+        if (solution.get() == null && !frontier.isEmpty()) {
+            pool.invoke(conquest);
+            for (SearchStatistics workerStatistics : conquest.workerStatistics) {
+                statistics.add(workerStatistics, 0);
+            }
+            timer.addCpuTime(SolveResult.Phase.SEARCH, statistics.getCpuTimeNanos());
+        }
+
+        SudokuBoard solved = solution.get();
+        SolveResult result;
+        if (solved == null) {
+            result = new SolveResult(SolveStatus.of(false, token), null, statistics, timer);
+        } else {
+            timer.start(SolveResult.Phase.COPY_BACK);
+            solved.copyTo(board);
+            result = new SolveResult(SolveStatus.SOLVED, solved, statistics, timer);
+        }
+        return new FrontierReport(result, conquest.subproblemNodes, conquest.subproblemNanos, conquest.workerBusyNanos);
+    }
+
+    @Override
+    public boolean isValid(int[][] board, int row, int col, int num) {
+        return sequentialSolver.isValid(board, row, col, num);
+    }
+
+    /**
+     * Expands boards breadth-first until there are at least {@code target} of them. A board
+     * completed during the expansion goes straight into {@code solution} and ends it.
+     */
+    private List<Subproblem> expandFrontier(SudokuBoard root, int target,
+                                            AtomicReference<SudokuBoard> solution,
+                                            SearchStatistics statistics) {
+        ArrayDeque<SudokuBoard> frontier = new ArrayDeque<>();
+        int rootEmptyCells = root.getEmptyCellCount();
+        if (fillForcedCells(root, rootEmptyCells, statistics)) {
+            frontier.add(root);
+        }
+
+        while (!frontier.isEmpty() && frontier.size() < target) {
+            SudokuBoard board = frontier.poll();
+            int cell = cellSelection.selectCell(board);
+            if (cell < 0) {
+                solution.set(board);
+                return new ArrayList<>();
+            }
+
+            long candidates = board.candidatesMaskAtUnchecked(cell);
+            while (candidates != 0) {
+                int numToTry = Long.numberOfTrailingZeros(candidates) + 1;
+                candidates &= candidates - 1;
+
+                SudokuBoard child = board.clone();
+                child.setValueAtUnchecked(cell, numToTry);
+                if (fillForcedCells(child, rootEmptyCells, statistics)) {
+                    frontier.add(child);
+                }
+            }
+        }
+
+        List<Subproblem> subproblems = new ArrayList<>(frontier.size());
+        for (SudokuBoard board : frontier) {
+            subproblems.add(new Subproblem(board, promiseOf(board)));
+        }
+        return subproblems;
+    }
+
+    /**
+     * Fills cells that have a single candidate until the next cell to branch on has several,
+     * recording each node at its depth below a root with {@code rootEmptyCells} empty cells.
+     * @return false if some cell was left with no candidate
+     */
+    private boolean fillForcedCells(SudokuBoard board, int rootEmptyCells, SearchStatistics statistics) {
+        while (true) {
+            statistics.recordNode(rootEmptyCells - board.getEmptyCellCount());
+            int cell = cellSelection.selectCell(board);
+            if (cell < 0) {
+                return true;
+            }
+            long candidates = board.candidatesMaskAtUnchecked(cell);
+            if (candidates == 0) {
+                return false;
+            }
+            if ((candidates & (candidates - 1)) != 0) {
+                return true;
+            }
+            board.setValueAtUnchecked(cell, Long.numberOfTrailingZeros(candidates) + 1);
+        }
+    }
+
+    /**
+     * Log of the product of the candidate counts of the empty cells: a rough size of the
+     * subtree below the board. Smaller subtrees are searched first, since they are
+     * quickest to either solve or rule out.
+     */
+    private static double promiseOf(SudokuBoard board) {
+        double logSize = 0;
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            if (board.getValueAtUnchecked(cell) == 0) {
+                logSize += LOG_CANDIDATES[Long.bitCount(board.candidatesMaskAtUnchecked(cell))];
+            }
+        }
+        return logSize;
+    }
+
+    private static final class Subproblem {
+
+        private final SudokuBoard board;
+        private final double promise;
+
+        Subproblem(SudokuBoard board, double promise) {
+            this.board = board;
+            this.promise = promise;
+        }
+
+        double promise() {
+            return promise;
+        }
+    }
+
+    /**
+     * The conquer phase: one task per worker, each taking the next subproblem off the
+     * shared queue until the queue is empty or a solution has been published.
+     */
+    private class Conquest extends RecursiveAction {
+
+        private final List<Subproblem> queue;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicReference<SudokuBoard> solution;
+
+        // Cancelled once a solution has been published, and by the caller's token.
+        private final CancellationToken stop;
+
+        private final int workerCount;
+        private final int rootEmptyCells;
+
+        // Indexed by queue position (-1 for subproblems never started) and by worker.
+        final long[] subproblemNodes;
+        final long[] subproblemNanos;
+        final long[] workerBusyNanos;
+        final SearchStatistics[] workerStatistics;
+
+        Conquest(List<Subproblem> queue, AtomicReference<SudokuBoard> solution,
+                 CancellationToken stop, int workerCount, int rootEmptyCells) {
+            this.queue = queue;
+            this.solution = solution;
+            this.stop = stop;
+            this.workerCount = workerCount;
+            this.rootEmptyCells = rootEmptyCells;
+            this.subproblemNodes = new long[queue.size()];
+            this.subproblemNanos = new long[queue.size()];
+            this.workerBusyNanos = new long[workerCount];
+            this.workerStatistics = new SearchStatistics[workerCount];
+            Arrays.fill(subproblemNodes, -1);
+        }
+
+        @Override
+        protected void compute() {
+            List<Worker> workers = new ArrayList<>(workerCount);
+            for (int worker = 0; worker < workerCount; worker++) {
+                workers.add(new Worker(worker));
+            }
+            invokeAll(workers);
+        }
+
+        private void drain(int worker) {
+            SearchStatistics total = new SearchStatistics();
+            SearchStatistics statistics = new SearchStatistics();
+            long cpuStart = PhaseTimer.currentThreadCpuTime();
+            int index;
+            while (!stop.isCancelled() && (index = next.getAndIncrement()) < queue.size()) {
+                SudokuBoard board = queue.get(index).board;
+                int depth = rootEmptyCells - board.getEmptyCellCount();
+                statistics.reset();
+                long start = System.nanoTime();
+                if (sequentialSolver.solve(board, statistics, stop) && solution.compareAndSet(null, board)) {
+                    stop.cancel();
+                }
+                long elapsed = System.nanoTime() - start;
+
+                subproblemNodes[index] = statistics.getNodeCount();
+                subproblemNanos[index] = elapsed;
+                workerBusyNanos[worker] += elapsed;
+                total.add(statistics, depth);
+            }
+            total.recordCpuTime(PhaseTimer.currentThreadCpuTime() - cpuStart);
+            workerStatistics[worker] = total;
+        }
+
+        private class Worker extends RecursiveAction {
+
+            private final int id;
+
+            Worker(int id) {
+                this.id = id;
+            }
+
+            @Override
+            protected void compute() {
+                drain(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package solver;
+
+import model.SudokuBoard;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Consumer;
+
+/**
+ * Exact-cover solver using Knuth's Algorithm X with dancing links.
+ *
+ * Each of the 729 (cell, digit) placements is a row covering four of the 324
+ * constraints: the cell is filled, and the digit appears once in its row,
+ * column and box. The node arrays for that matrix are built once and relinked
+ * at the start of every solve, so the search itself allocates nothing. Idle
+ * matrices are pooled per board size on the solver: a solve borrows one and
+ * returns it when done, so they are reused across threads too, including the
+ * short-lived virtual threads that run a portfolio's members. The pool holds as
+ * many matrices per size as there were concurrent solves of that size. Larger
+ * boards get the same matrix scaled up: side^3 placements and 4 * side^2 constraints.
+ */
+public class DlxSudokuSolver implements SudokuSolver {
+
+    private static final int ROOT = 0;
+
+    // Matrices not in use, indexed by box size; the most recently returned is handed out first.
+    private final List<Deque<DancingLinks>> idleLinks = new ArrayList<>();
+
+    private final SequentialSudokuSolver validityChecker = new SequentialSudokuSolver();
+
+    public DlxSudokuSolver() {
+        for (int boxSize = 0; boxSize <= SudokuBoard.MAX_BOX_SIZE; boxSize++) {
+            idleLinks.add(new ConcurrentLinkedDeque<>());
+        }
+    }
+
+    @Override
+    public boolean solve(int[][] board) {
+        return solve(board, CancellationToken.NONE).isSolved();
+    }
+
+    @Override
+    public SolveResult solve(int[][] board, CancellationToken token) {
+        if (board == null) {
+            throw new IllegalArgumentException("Board must not be null.");
+        }
+        PhaseTimer timer = new PhaseTimer();
+        timer.start(SolveResult.Phase.SETUP);
+        SudokuBoard modelBoard = new SudokuBoard(board);
+        SearchStatistics statistics = new SearchStatistics();
+
+        timer.start(SolveResult.Phase.SEARCH);
+        if (!solve(modelBoard, statistics, token)) {
+            return new SolveResult(SolveStatus.of(false, token), null, statistics, timer);
+        }
+
+        timer.start(SolveResult.Phase.COPY_BACK);
+        modelBoard.copyTo(board);
+        return new SolveResult(SolveStatus.SOLVED, modelBoard, statistics, timer);
+    }
+
+    @Override
+    public boolean solve(int[] cells) {
+        SudokuBoard modelBoard = new SudokuBoard(cells);
+        if (!solve(modelBoard)) {
+            return false;
+        }
+        modelBoard.copyTo(cells);
+        return true;
+    }
+
+    /**
+     * Solves the board in-place. On failure the board is left unchanged.
+     */
+    public boolean solve(SudokuBoard board) {
+        return solve(board, new SearchStatistics(), CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #solve(SudokuBoard)}, recording search counters into {@code statistics}
+     * and giving up (returning false) once {@code token} stops.
+     */
+    public boolean solve(SudokuBoard board, SearchStatistics statistics, CancellationToken token) {
+        if (token.isCancelled()) {
+            return false;
+        }
+        DancingLinks dlx = borrowLinks(board.getBoxSize());
+        try {
+            dlx.load(board);
+            if (dlx.search(1, null, statistics, token) == 0) {
+                return false;
+            }
+            dlx.writeFirstSolution(board);
+            return true;
+        } finally {
+            releaseLinks(board.getBoxSize(), dlx);
+        }
+    }
+
+    /**
+     * Counts the solutions of a puzzle, stopping once {@code limit} have been found.
+     * A limit of 2 is enough to tell whether the solution is unique.
+     */
+    public long countSolutions(int[][] board, long limit) {
+        return forEachSolution(board, limit, null);
+    }
+
+    /**
+     * Passes every solution of the puzzle (up to {@code limit}) to {@code action}
+     * as a fresh array of the puzzle's size. The input board is not modified.
+     * @return the number of solutions found
+     */
+    public long forEachSolution(int[][] board, long limit, Consumer<int[][]> action) {
+        if (board == null) {
+            throw new IllegalArgumentException("Board must not be null.");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be >= 1");
+        }
+        SudokuBoard modelBoard = new SudokuBoard(board);
+        // Borrowed rather than shared, so an action that solves another puzzle with this solver gets its own matrix.
+        DancingLinks dlx = borrowLinks(modelBoard.getBoxSize());
+        try {
+            dlx.load(modelBoard);
+            return dlx.search(limit, action, new SearchStatistics(), CancellationToken.NONE);
+        } finally {
+            releaseLinks(modelBoard.getBoxSize(), dlx);
+        }
+    }
+
+    @Override
+    public boolean isValid(int[][] board, int row, int col, int num) {
+        return validityChecker.isValid(board, row, col, num);
+    }
+
+    private DancingLinks borrowLinks(int boxSize) {
+        DancingLinks dlx = idleLinks.get(boxSize).pollFirst();
+        return dlx != null ? dlx : new DancingLinks(boxSize);
+    }
+
+    private void releaseLinks(int boxSize, DancingLinks dlx) {
+        idleLinks.get(boxSize).offerFirst(dlx);
+    }
+
+    /**
+     * The exact-cover matrix for one board size, used by one solve at a time. Column headers occupy
+     * nodes 1..4 * side^2 (1..324 for 9x9), followed by four nodes per placement;
+     * node 0 is the root of the header list.
+     */
+    private static final class DancingLinks {
+
+        private final int digits;          // also the side of the board
+        private final int cellCount;
+        private final int constraints;
+        private final int firstRowNode;
+        private final int nodeCount;
+
+        private final int[] left;
+        private final int[] right;
+        private final int[] up;
+        private final int[] down;
+        private final int[] column;
+        private final int[] size;
+
+        // Placement chosen at each search depth, plus the givens.
+        private final int[] chosen;
+        private final int[] givens;
+        private int givenCount;
+        private final int[][] scratchSolution;
+
+        private long solutionsFound;
+        private long limit;
+        private SearchStatistics statistics;
+        private CancellationToken token;
+
+        DancingLinks(int boxSize) {
+            digits = boxSize * boxSize;
+            cellCount = digits * digits;
+            constraints = 4 * cellCount;
+            firstRowNode = constraints + 1;
+            int placements = cellCount * digits;
+            nodeCount = firstRowNode + 4 * placements;
+
+            left = new int[nodeCount];
+            right = new int[nodeCount];
+            up = new int[nodeCount];
+            down = new int[nodeCount];
+            column = new int[nodeCount];
+            size = new int[constraints + 1];
+            chosen = new int[cellCount];
+            givens = new int[cellCount];
+            scratchSolution = new int[digits][digits];
+
+            for (int placement = 0; placement < placements; placement++) {
+                int cell = placement / digits;
+                int digit = placement % digits;
+                int row = cell / digits;
+                int col = cell % digits;
+                int box = (row / boxSize) * boxSize + col / boxSize;
+
+                int node = firstRowNode + placement * 4;
+                column[node] = 1 + cell;
+                column[node + 1] = 1 + cellCount + row * digits + digit;
+                column[node + 2] = 1 + 2 * cellCount + col * digits + digit;
+                column[node + 3] = 1 + 3 * cellCount + box * digits + digit;
+            }
+        }
+
+        private int placementOf(int cell, int digit) {
+            return cell * digits + (digit - 1);
+        }
+
+        /**
+         * Relinks the full matrix and covers the givens of {@code board}.
+         */
+        void load(SudokuBoard board) {
+            for (int header = 0; header <= constraints; header++) {
+                left[header] = header == 0 ? constraints : header - 1;
+                right[header] = header == constraints ? 0 : header + 1;
+                up[header] = header;
+                down[header] = header;
+                size[header] = 0;
+            }
+
+            for (int node = firstRowNode; node < nodeCount; node++) {
+                int header = column[node];
+                up[node] = up[header];
+                down[node] = header;
+                down[up[header]] = node;
+                up[header] = node;
+                size[header]++;
+
+                int first = node - (node - firstRowNode) % 4;
+                left[node] = node == first ? first + 3 : node - 1;
+                right[node] = node == first + 3 ? first : node + 1;
+            }
+
+            givenCount = 0;
+            for (int cell = 0; cell < cellCount; cell++) {
+                int digit = board.getValueAt(cell);
+                if (digit != 0) {
+                    int node = firstRowNode + placementOf(cell, digit) * 4;
+                    cover(column[node]);
+                    for (int j = right[node]; j != node; j = right[j]) {
+                        cover(column[j]);
+                    }
+                    givens[givenCount++] = node;
+                }
+            }
+        }
+
+        /**
+         * Runs Algorithm X from the current matrix state, stopping early if {@code token} stops.
+         * @return number of solutions found, at most {@code limit}
+         */
+        long search(long limit, Consumer<int[][]> action, SearchStatistics statistics, CancellationToken token) {
+            this.solutionsFound = 0;
+            this.limit = limit;
+            this.statistics = statistics;
+            this.token = token;
+            searchFrom(0, action);
+            this.statistics = null;
+            this.token = null;
+            return solutionsFound;
+        }
+
+        private boolean searchFrom(int depth, Consumer<int[][]> action) {
+            statistics.recordNode(depth);
+            if (token.shouldStop(statistics.getNodeCount())) {
+                return true; // unwind like a finished search; the matrix is relinked on the next load()
+            }
+            if (right[ROOT] == ROOT) {
+                solutionsFound++;
+                if (action != null) {
+                    action.accept(currentSolution(depth));
+                }
+                return solutionsFound >= limit;
+            }
+
+            // Branch on the constraint with the fewest remaining options.
+            int best = right[ROOT];
+            for (int header = right[best]; header != ROOT; header = right[header]) {
+                if (size[header] < size[best]) {
+                    best = header;
+                }
+            }
+            if (size[best] == 0) {
+                return false;
+            }
+
+            cover(best);
+            for (int node = down[best]; node != best; node = down[node]) {
+                chosen[depth] = node;
+                for (int j = right[node]; j != node; j = right[j]) {
+                    cover(column[j]);
+                }
+                if (searchFrom(depth + 1, action)) {
+                    return true; // leave the matrix as is; load() relinks it for the next solve
+                }
+                statistics.recordBacktrack();
+                for (int j = left[node]; j != node; j = left[j]) {
+                    uncover(column[j]);
+                }
+            }
+            uncover(best);
+            return false;
+        }
+
+        void writeFirstSolution(SudokuBoard board) {
+            // The search stops on the first solution, so chosen[] still holds it.
+            int empty = cellCount - givenCount;
+            for (int depth = 0; depth < empty; depth++) {
+                int placement = (chosen[depth] - firstRowNode) / 4;
+                board.setValueAt(placement / digits, placement % digits + 1);
+            }
+        }
+
+        private int[][] currentSolution(int depth) {
+            for (int i = 0; i < givenCount; i++) {
+                writePlacement(givens[i], scratchSolution);
+            }
+            for (int i = 0; i < depth; i++) {
+                writePlacement(chosen[i], scratchSolution);
+            }
+            int[][] copy = new int[digits][];
+            for (int row = 0; row < digits; row++) {
+                copy[row] = scratchSolution[row].clone();
+            }
+            return copy;
+        }
+
+        private void writePlacement(int node, int[][] target) {
+            int placement = (node - firstRowNode) / 4;
+            int cell = placement / digits;
+            target[cell / digits][cell % digits] = placement % digits + 1;
+        }
+
+        private void cover(int header) {
+            right[left[header]] = right[header];
+            left[right[header]] = left[header];
+            for (int i = down[header]; i != header; i = down[i]) {
+                for (int j = right[i]; j != i; j = right[j]) {
+                    up[down[j]] = up[j];
+                    down[up[j]] = down[j];
+                    size[column[j]]--;
+                }
+            }
+        }
+
+        private void uncover(int header) {
+            for (int i = up[header]; i != header; i = up[i]) {
+                for (int j = left[i]; j != i; j = left[j]) {
+                    size[column[j]]++;
+                    down[up[j]] = j;
+                    up[down[j]] = j;
+                }
+            }
+            right[left[header]] = header;
+            left[right[header]] = header;
+        }
+    }
+}
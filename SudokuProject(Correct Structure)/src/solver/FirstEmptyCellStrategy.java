@@ -0,0 +1,14 @@
+package solver;
+
+import model.SudokuBoard;
+
+/**
+ * Picks the first empty cell in row-major order (classic naive backtracking).
+ */
+public class FirstEmptyCellStrategy implements CellSelectionStrategy {
+
+    @Override
+    public int selectCell(SudokuBoard board) {
+        return board.findNextEmptyCellIndex();
+    }
+}
@@ -0,0 +1,27 @@
+package solver;
+
+import model.SudokuBoard;
+
+/**
+ * Splits every node above a fixed depth, whatever the puzzle.
+ */
+public class FixedDepthSplitPolicy implements SplitPolicy {
+
+    private final int maxDepth;
+
+    public FixedDepthSplitPolicy(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("maxDepth must be >= 0");
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    @Override
+    public boolean shouldSplit(SudokuBoard board, int depth, int candidateCount) {
+        return depth < maxDepth;
+    }
+}
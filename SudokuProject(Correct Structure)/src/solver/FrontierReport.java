@@ -0,0 +1,96 @@
+package solver;
+
+/**
+ * How a {@link CubeAndConquerSudokuSolver} run split its work: the counters of every
+ * subproblem, in the order they were queued (most promising first), and the time
+ * each worker spent searching.
+ */
+public final class FrontierReport {
+
+    private final SolveResult result;
+    private final long[] subproblemNodes;
+    private final long[] subproblemNanos;
+    private final long[] workerBusyNanos;
+
+    FrontierReport(SolveResult result, long[] subproblemNodes, long[] subproblemNanos, long[] workerBusyNanos) {
+        this.result = result;
+        this.subproblemNodes = subproblemNodes.clone();
+        this.subproblemNanos = subproblemNanos.clone();
+        this.workerBusyNanos = workerBusyNanos.clone();
+    }
+
+    public SolveResult getResult() {
+        return result;
+    }
+
+    public int getSubproblemCount() {
+        return subproblemNodes.length;
+    }
+
+    /**
+     * Nodes searched per subproblem; -1 for subproblems skipped because the search had already stopped.
+     */
+    public long[] getSubproblemNodeCounts() {
+        return subproblemNodes.clone();
+    }
+
+    /**
+     * Wall-clock time per subproblem; 0 for subproblems that were skipped.
+     */
+    public long[] getSubproblemTimesNanos() {
+        return subproblemNanos.clone();
+    }
+
+    public long[] getWorkerBusyNanos() {
+        return workerBusyNanos.clone();
+    }
+
+    /**
+     * Busiest worker's search time divided by the mean over all workers:
+     * 1.0 means perfectly even, {@code workerCount} means one worker did everything.
+     * Returns 1.0 when no worker searched at all.
+     */
+    public double getWorkerImbalance() {
+        long max = 0;
+        long sum = 0;
+        for (long nanos : workerBusyNanos) {
+            max = Math.max(max, nanos);
+            sum += nanos;
+        }
+        if (sum == 0) {
+            return 1.0;
+        }
+        return max / ((double) sum / workerBusyNanos.length);
+    }
+
+    /**
+     * Largest subproblem's node count divided by the mean over the subproblems that ran.
+     * Returns 1.0 when none ran.
+     */
+    public double getSubproblemImbalance() {
+        long max = 0;
+        long sum = 0;
+        int ran = 0;
+        for (long nodes : subproblemNodes) {
+            if (nodes >= 0) {
+                max = Math.max(max, nodes);
+                sum += nodes;
+                ran++;
+            }
+        }
+        if (sum == 0) {
+            return 1.0;
+        }
+        return max / ((double) sum / ran);
+    }
+
+    @Override
+    public String toString() {
+        return "FrontierReport{" +
+                "result=" + result +
+                ", subproblems=" + subproblemNodes.length +
+                ", workerImbalance=" + String.format("%.2f", getWorkerImbalance()) +
+                ", subproblemImbalance=" + String.format("%.2f", getSubproblemImbalance()) +
+                '}';
+    }
+}
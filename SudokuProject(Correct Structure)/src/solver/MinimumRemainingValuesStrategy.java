@@ -0,0 +1,32 @@
+package solver;
+
+import model.SudokuBoard;
+
+/**
+ * Picks the empty cell with the fewest legal digits (minimum remaining values).
+ * A cell with no candidates is returned immediately so the search fails fast,
+ * and a cell with a single candidate is taken without scanning further.
+ */
+public class MinimumRemainingValuesStrategy implements CellSelectionStrategy {
+
+    @Override
+    public int selectCell(SudokuBoard board) {
+        int bestCell = -1;
+        int bestCount = Integer.MAX_VALUE;
+
+        for (int index = 0; index < board.getCellCount(); index++) {
+            if (board.getValueAtUnchecked(index) != 0) {
+                continue;
+            }
+            int count = Long.bitCount(board.candidatesMaskAtUnchecked(index));
+            if (count < bestCount) {
+                bestCell = index;
+                bestCount = count;
+                if (count <= 1) {
+                    break;
+                }
+            }
+        }
+        return bestCell;
+    }
+}
@@ -1,142 +1,491 @@
 package solver;
 
 import model.SudokuBoard;
-import model.CellPosition; // Added import for CellPosition
-import java.util.Optional; // Added import for Optional
 import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.RecursiveTask; // Added import for RecursiveTask
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ParallelSudokuSolver implements SudokuSolver {
 
-    private static final int DEFAULT_MAX_PARALLEL_DEPTH = 2;
+    private final SplitPolicy splitPolicy;
 
-    private final int maxParallelDepth;
+    private final CellSelectionStrategy cellSelection;
 
-    private static final SequentialSudokuSolver sequentialFallbackSolver = new SequentialSudokuSolver();
+    private final ForkJoinPool pool;
 
+    // Runs the subtrees below the split frontier and answers isValid.
+    private final SequentialSudokuSolver sequentialSolver;
 
+
+    /**
+     * Creates a solver on the common pool that decides where to split with an {@link AdaptiveSplitPolicy}.
+     */
     public ParallelSudokuSolver() {
-        this(DEFAULT_MAX_PARALLEL_DEPTH);
+        this(ForkJoinPool.commonPool());
     }
 
+    /**
+     * Creates a solver that splits every node above {@code maxParallelDepth} split levels.
+     */
     public ParallelSudokuSolver(int maxParallelDepth) {
-        if (maxParallelDepth < 0) {
-            throw new IllegalArgumentException("maxParallelDepth must be >= 0");
+        this(maxParallelDepth, new MinimumRemainingValuesStrategy());
+    }
+
+    public ParallelSudokuSolver(int maxParallelDepth, CellSelectionStrategy cellSelection) {
+        this(maxParallelDepth, cellSelection, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a solver that runs its tasks on {@code pool} instead of the common pool.
+     */
+    public ParallelSudokuSolver(ForkJoinPool pool) {
+        this(new AdaptiveSplitPolicy(), new MinimumRemainingValuesStrategy(), pool);
+    }
+
+    public ParallelSudokuSolver(int maxParallelDepth, CellSelectionStrategy cellSelection, ForkJoinPool pool) {
+        this(new FixedDepthSplitPolicy(maxParallelDepth), cellSelection, pool);
+    }
+
+    public ParallelSudokuSolver(SplitPolicy splitPolicy, CellSelectionStrategy cellSelection, ForkJoinPool pool) {
+        this(splitPolicy, cellSelection, pool, null);
+    }
+
+    /**
+     * Creates a solver whose workers share {@code deadStates}: subtrees below the split
+     * frontier that one worker exhausted are cut off when any worker reaches the same
+     * state again, in this solve or a later one. Null searches without a table.
+     */
+    public ParallelSudokuSolver(SplitPolicy splitPolicy, CellSelectionStrategy cellSelection, ForkJoinPool pool,
+                                TranspositionTable deadStates) {
+        if (splitPolicy == null) {
+            throw new IllegalArgumentException("Split policy must not be null.");
+        }
+        if (cellSelection == null) {
+            throw new IllegalArgumentException("Cell selection strategy must not be null.");
         }
-        this.maxParallelDepth = maxParallelDepth;
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null.");
+        }
+        this.splitPolicy = splitPolicy;
+        this.cellSelection = cellSelection;
+        this.pool = pool;
+        this.sequentialSolver = new SequentialSudokuSolver(cellSelection, deadStates);
+    }
+
+    /**
+     * Creates a solver on a pool with the given parallelism. Solvers created with the
+     * same parallelism share one pool from {@link SolverPoolManager#getDefault()}.
+     */
+    public static ParallelSudokuSolver withParallelism(int parallelism) {
+        ForkJoinPool pool = SolverPoolManager.getDefault().getOrCreate("parallelism-" + parallelism, parallelism);
+        return new ParallelSudokuSolver(pool);
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
     }
 
     @Override
     public boolean solve(int[][] board) {
+        return solve(board, CancellationToken.NONE).isSolved();
+    }
+
+    @Override
+    public SolveResult solve(int[][] board, CancellationToken token) {
         if (board == null) {
             throw new IllegalArgumentException("Board must not be null.");
         }
 
+        PhaseTimer timer = new PhaseTimer();
+        timer.start(SolveResult.Phase.SETUP);
         SudokuBoard modelBoard = new SudokuBoard(board);
+        SearchStatistics statistics = new SearchStatistics();
 
-        AtomicBoolean solutionFound = new AtomicBoolean(false);
-
-
-        SolveTask rootTask = new SolveTask(modelBoard, maxParallelDepth, 0, solutionFound);
-
+        timer.start(SolveResult.Phase.SEARCH);
+        SudokuBoard solved = solveBoard(modelBoard, token, statistics);
+        timer.addCpuTime(SolveResult.Phase.SEARCH, statistics.getCpuTimeNanos());
+        if (solved == null) {
+            return new SolveResult(SolveStatus.of(false, token), null, statistics, timer);
+        }
 
-        SudokuBoard solved = ForkJoinPool.commonPool().invoke(rootTask);
+        timer.start(SolveResult.Phase.COPY_BACK);
+        solved.copyTo(board);
+        return new SolveResult(SolveStatus.SOLVED, solved, statistics, timer);
+    }
 
+    @Override
+    public boolean solve(int[] cells) {
+        SudokuBoard solved = solveBoard(new SudokuBoard(cells), CancellationToken.NONE, new SearchStatistics());
         if (solved == null) {
             return false;
         }
 
-        int[][] solvedArray = solved.toArray();
-        for (int row = 0; row < GRID_SIZE; row++) {
-            System.arraycopy(solvedArray[row], 0, board[row], 0, GRID_SIZE);
+        solved.copyTo(cells);
+        return true;
+    }
+
+    // Runs the search and adds the counters of every task that finished into statistics.
+    private SudokuBoard solveBoard(SudokuBoard modelBoard, CancellationToken token, SearchStatistics statistics) {
+        if (token.isCancelled()) {
+            return null;
+        }
+        SearchState state = new SearchState(token.newChild(), modelBoard.getEmptyCellCount());
+        pool.invoke(new SolveTask(modelBoard, 0, state));
+        state.addStatisticsTo(statistics);
+        return state.solution.get();
+    }
+
+    /**
+     * Counts the solutions of a puzzle in parallel, stopping every branch once
+     * {@code limit} have been found. A limit of 2 is enough to tell whether the
+     * solution is unique. The input board is not modified.
+     * @return the number of solutions found, at most {@code limit}
+     */
+    public long countSolutions(int[][] board, long limit) {
+        return countSolutions(board, limit, CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #countSolutions(int[][], long)}, but gives up once {@code token}
+     * stops, in which case the count is only a lower bound.
+     */
+    public long countSolutions(int[][] board, long limit, CancellationToken token) {
+        if (board == null) {
+            throw new IllegalArgumentException("Board must not be null.");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be >= 1");
         }
+        if (token.isCancelled()) {
+            return 0;
+        }
+        CountState state = new CountState(limit, token.newChild());
+        pool.invoke(new CountTask(new SudokuBoard(board), 0, state));
+        // Branches racing past the limit may each have counted one more.
+        return Math.min(state.count.get(), limit);
+    }
 
-        return true;
+    /**
+     * Returns true if the puzzle has exactly one solution.
+     */
+    public boolean hasUniqueSolution(int[][] board) {
+        return countSolutions(board, 2) == 1;
     }
 
     @Override
     public boolean isValid(int[][] board, int row, int col, int num) {
-        return sequentialFallbackSolver.isValid(board, row, col, num);
+        return sequentialSolver.isValid(board, row, col, num);
+    }
+
+    /**
+     * State shared by all tasks of one solve.
+     */
+    private static final class SearchState {
+
+        final AtomicReference<SudokuBoard> solution = new AtomicReference<>();
+
+        // Cancelled by whichever task publishes the solution, and by the caller's token.
+        final CancellationToken stop;
+
+        final int rootEmptyCells;
+
+        // Every task counts into its own SearchStatistics and adds it here once, when it ends.
+        private final SearchStatistics total = new SearchStatistics();
+
+        SearchState(CancellationToken stop, int rootEmptyCells) {
+            this.stop = stop;
+            this.rootEmptyCells = rootEmptyCells;
+        }
+
+        void publish(SudokuBoard solved) {
+            if (solution.compareAndSet(null, solved)) {
+                stop.cancel();
+            }
+        }
+
+        // Placements made between the root board and the given task board.
+        int depthOf(SudokuBoard board) {
+            return rootEmptyCells - board.getEmptyCellCount();
+        }
+
+        synchronized void add(SearchStatistics taskStatistics) {
+            total.add(taskStatistics, 0);
+        }
+
+        // Tasks cancelled while running may still report afterwards; their counts are simply missed.
+        synchronized void addStatisticsTo(SearchStatistics statistics) {
+            statistics.add(total, 0);
+        }
     }
 
-    private static class SolveTask extends RecursiveTask<SudokuBoard> {
+    /**
+     * Searches the subtree below its board. The first task to complete the board
+     * publishes it through the shared {@code solution} reference and cancels the
+     * shared {@code stop} token, which every task polls so the rest of the search
+     * winds down.
+     *
+     * A task works on one board in place and backs out of a branch by undoing its
+     * {@link SearchTrail}. At a split the first candidate is searched right here;
+     * the others are forked as tasks that only hold a read-only snapshot of the
+     * board, shared by all of them. A forked task copies the snapshot when it is
+     * run by a thief; a task still in our own deque is taken back with
+     * {@code tryUnfork} and searched on our board after undoing the first branch,
+     * so boards are only copied for subtrees that another worker actually took.
+     */
+    private class SolveTask extends RecursiveAction {
 
-        private final int maxParallelDepth;
         private final int currentDepth;
-        private final SudokuBoard board;
-        private final AtomicBoolean solutionFound;
+        private final SearchState state;
+
+        // Root task: the board to search. Forked branch: null until the task runs.
+        private SudokuBoard board;
+
+        // Forked branch: the board at the split point and the placement that starts the branch.
+        private final SudokuBoard snapshot;
+        private final int branchCell;
+        private final int branchDigit;
 
-        public SolveTask(SudokuBoard board, int maxParallelDepth, int currentDepth, AtomicBoolean solutionFound) {
+        public SolveTask(SudokuBoard board, int currentDepth, SearchState state) {
+            this(board, null, -1, 0, currentDepth, state);
+        }
+
+        private SolveTask(SudokuBoard board, SudokuBoard snapshot, int cell, int digit,
+                          int currentDepth, SearchState state) {
             this.board = board;
-            this.maxParallelDepth = maxParallelDepth;
+            this.snapshot = snapshot;
+            this.branchCell = cell;
+            this.branchDigit = digit;
             this.currentDepth = currentDepth;
-            this.solutionFound = solutionFound;
+            this.state = state;
         }
 
         @Override
-        protected SudokuBoard compute() {
-            if (solutionFound.get()) {
-                return null;
+        protected void compute() {
+            SearchStatistics statistics = new SearchStatistics();
+            try {
+                if (board == null) {
+                    if (state.stop.isCancelled()) {
+                        return;
+                    }
+                    board = snapshot.clone();
+                    board.setValueAtUnchecked(branchCell, branchDigit);
+                }
+                search(board, new SearchTrail(board), currentDepth, statistics);
+            } finally {
+                state.add(statistics);
+            }
+        }
+
+        /**
+         * Searches below {@code board}, recording its placements on {@code trail}.
+         * @return true if this call published the board as the solution, in which case
+         *         the board must not be touched again; otherwise the caller undoes the trail
+         */
+        private boolean search(SudokuBoard board, SearchTrail trail, int taskDepth, SearchStatistics statistics) {
+            if (state.stop.isCancelled()) {
+                return false;
             }
 
-            Optional<CellPosition> emptyCell = board.findNextEmptyCell();
+            // Forced cells are filled in this task; only real choice points are offered to the split policy.
+            int cell;
+            long candidates;
+            while (true) {
+                cell = cellSelection.selectCell(board);
+                if (cell < 0) {
+                    statistics.recordNode(state.depthOf(board));
+                    state.publish(board);
+                    return true;
+                }
+                candidates = board.candidatesMaskAtUnchecked(cell);
+                if (candidates == 0) {
+                    statistics.recordNode(state.depthOf(board));
+                    return false; // dead end
+                }
+                if ((candidates & (candidates - 1)) != 0) {
+                    break;
+                }
+                statistics.recordNode(state.depthOf(board));
+                board.setValueAtUnchecked(cell, Long.numberOfTrailingZeros(candidates) + 1);
+                trail.push(cell);
+            }
 
-            if (!emptyCell.isPresent()) {
-                if (board.isComplete()) {
-                    solutionFound.set(true);
-                    return board;
+            if (!splitPolicy.shouldSplit(board, taskDepth, Long.bitCount(candidates))) {
+                // The sequential search counts this node itself, and undoes its own placements.
+                SearchStatistics leafStatistics = new SearchStatistics();
+                int depth = state.depthOf(board);
+                long cpuStart = PhaseTimer.currentThreadCpuTime();
+                boolean solved = sequentialSolver.solve(board, leafStatistics, state.stop);
+                if (solved) {
+                    state.publish(board);
+                }
+                leafStatistics.recordCpuTime(PhaseTimer.currentThreadCpuTime() - cpuStart);
+                statistics.add(leafStatistics, depth);
+                return solved;
+            }
+
+            // Split: fork every candidate but the first, all sharing one snapshot of the board.
+            statistics.recordNode(state.depthOf(board));
+            int first = Long.numberOfTrailingZeros(candidates) + 1;
+            candidates &= candidates - 1;
+
+            SudokuBoard snapshot = board.clone();
+            SolveTask[] siblings = new SolveTask[Long.bitCount(candidates)];
+            for (int i = 0; i < siblings.length; i++) {
+                int numToTry = Long.numberOfTrailingZeros(candidates) + 1;
+                candidates &= candidates - 1;
+                siblings[i] = new SolveTask(null, snapshot, cell, numToTry, taskDepth + 1, state);
+            }
+            for (int i = siblings.length - 1; i >= 0; i--) {
+                siblings[i].fork();
+            }
+            statistics.recordForks(siblings.length);
+
+            int mark = trail.size();
+            if (searchBranch(board, trail, cell, first, taskDepth, statistics)) {
+                return true;
+            }
+            trail.undoTo(board, mark);
+
+            for (SolveTask sibling : siblings) {
+                if (state.stop.isCancelled()) {
+                    // Solved elsewhere or stopped by the caller: siblings that have not started
+                    // yet are dropped, running ones notice the token at their next check.
+                    sibling.cancel(false);
+                } else if (sibling.tryUnfork()) {
+                    // Nobody took it: search it here, on this board, instead of on a copy.
+                    if (searchBranch(board, trail, cell, sibling.branchDigit, taskDepth, statistics)) {
+                        return true;
+                    }
+                    trail.undoTo(board, mark);
                 } else {
-                    return null;
+                    sibling.join();
                 }
             }
+            return false;
+        }
+
+        private boolean searchBranch(SudokuBoard board, SearchTrail trail, int cell, int digit,
+                                     int taskDepth, SearchStatistics statistics) {
+            board.setValueAtUnchecked(cell, digit);
+            trail.push(cell);
+            return search(board, trail, taskDepth + 1, statistics);
+        }
+    }
+
+    /**
+     * State shared by all tasks of one count.
+     */
+    private static final class CountState {
 
-            CellPosition pos = emptyCell.get();
-            int row = pos.getRow();
-            int col = pos.getColumn();
+        final AtomicLong count = new AtomicLong();
+        final long limit;
 
-            for (int numToTry = 1; numToTry <= SudokuBoard.SIZE; numToTry++) {
-                if (solutionFound.get()) return null;
+        // Cancelled once the limit is reached, and by the caller's token.
+        final CancellationToken stop;
 
-                if (board.isValidMove(row, col, numToTry)) {
+        CountState(long limit, CancellationToken stop) {
+            this.limit = limit;
+            this.stop = stop;
+        }
 
-                    board.setValue(row, col, numToTry);
+        void recordSolution() {
+            if (count.incrementAndGet() >= limit) {
+                stop.cancel();
+            }
+        }
+    }
 
-                    if (currentDepth < maxParallelDepth) {
+    /**
+     * Counts the solutions below its board. Splits like {@link SolveTask}, but every
+     * branch runs to exhaustion unless the shared count reaches the limit.
+     */
+    private class CountTask extends RecursiveAction {
 
-                        SudokuBoard nextBoard = board.clone();
+        private final int currentDepth;
+        private final SudokuBoard board;
+        private final CountState state;
 
-                        SolveTask nextTask = new SolveTask(
-                                nextBoard,
-                                maxParallelDepth,
-                                currentDepth + 1,
-                                solutionFound
-                        );
+        CountTask(SudokuBoard board, int currentDepth, CountState state) {
+            this.board = board;
+            this.currentDepth = currentDepth;
+            this.state = state;
+        }
 
-                        nextTask.fork();
-                        SudokuBoard result = nextTask.join();
+        @Override
+        protected void compute() {
+            if (state.stop.isCancelled()) {
+                return;
+            }
 
-                        if (result != null) {
-                            return result;
-                        }
+            int cell;
+            long candidates;
+            while (true) {
+                cell = cellSelection.selectCell(board);
+                if (cell < 0) {
+                    state.recordSolution();
+                    return;
+                }
+                candidates = board.candidatesMaskAtUnchecked(cell);
+                if (candidates == 0) {
+                    return; // dead end
+                }
+                if ((candidates & (candidates - 1)) != 0) {
+                    break;
+                }
+                board.setValueAtUnchecked(cell, Long.numberOfTrailingZeros(candidates) + 1);
+            }
 
-                    } else {
+            if (!splitPolicy.shouldSplit(board, currentDepth, Long.bitCount(candidates))) {
+                countSequentially(cell, new SearchStatistics());
+                return;
+            }
 
-                        SequentialSudokuSolver sequentialSolver = sequentialFallbackSolver;
+            CountTask[] subtasks = new CountTask[Long.bitCount(candidates)];
+            for (int i = 0; i < subtasks.length; i++) {
+                int numToTry = Long.numberOfTrailingZeros(candidates) + 1;
+                candidates &= candidates - 1;
 
-                        int[][] boardArray = board.toArray();
+                SudokuBoard nextBoard = board.clone();
+                nextBoard.setValueAtUnchecked(cell, numToTry);
+                subtasks[i] = new CountTask(nextBoard, currentDepth + 1, state);
+            }
 
-                        if (sequentialSolver.solve(boardArray)) {
-                            solutionFound.set(true);
-                            return new SudokuBoard(boardArray);
-                        }
-                    }
+            for (int i = subtasks.length - 1; i > 0; i--) {
+                subtasks[i].fork();
+            }
 
-                    board.setValue(row, col, 0);
+            subtasks[0].compute();
+
+            for (int i = 1; i < subtasks.length; i++) {
+                if (state.stop.isCancelled()) {
+                    subtasks[i].cancel(false);
+                } else {
+                    subtasks[i].join();
                 }
             }
-            
-            return null;
+        }
+
+        // Tries every candidate of cell, counting each completed board; statistics only paces the token checks.
+        private void countSequentially(int cell, SearchStatistics statistics) {
+            statistics.recordNode();
+            if (state.stop.shouldStop(statistics.getNodeCount())) {
+                return;
+            }
+            if (cell < 0) {
+                state.recordSolution();
+                return;
+            }
+
+            long candidates = board.candidatesMaskAtUnchecked(cell);
+            while (candidates != 0 && !state.stop.hasStopped()) {
+                int numToTry = Long.numberOfTrailingZeros(candidates) + 1;
+                candidates &= candidates - 1;
+
+                board.setValueAtUnchecked(cell, numToTry);
+                countSequentially(cellSelection.selectCell(board), statistics);
+            }
+            board.clearCellAtUnchecked(cell);
         }
     }
-}
\ No newline at end of file
+}
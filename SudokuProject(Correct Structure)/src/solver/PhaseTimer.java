@@ -0,0 +1,60 @@
+package solver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures wall-clock and calling-thread CPU time of the phases of one solve.
+ * Phases run one after the other; starting a phase ends the previous one.
+ * Not thread-safe.
+ */
+public final class PhaseTimer {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported();
+
+    private final long[] wallNanos = new long[SolveResult.Phase.values().length];
+    private final long[] cpuNanos = new long[SolveResult.Phase.values().length];
+
+    private SolveResult.Phase current;
+    private long wallStart;
+    private long cpuStart;
+
+    /**
+     * Returns the CPU time of the calling thread, or 0 if the JVM cannot measure it.
+     */
+    public static long currentThreadCpuTime() {
+        return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : 0L;
+    }
+
+    public void start(SolveResult.Phase phase) {
+        stop();
+        current = phase;
+        wallStart = System.nanoTime();
+        cpuStart = currentThreadCpuTime();
+    }
+
+    public void stop() {
+        if (current == null) {
+            return;
+        }
+        wallNanos[current.ordinal()] += System.nanoTime() - wallStart;
+        cpuNanos[current.ordinal()] += currentThreadCpuTime() - cpuStart;
+        current = null;
+    }
+
+    /**
+     * Adds CPU time that other threads spent on {@code phase}.
+     */
+    public void addCpuTime(SolveResult.Phase phase, long nanos) {
+        cpuNanos[phase.ordinal()] += nanos;
+    }
+
+    long[] wallNanos() {
+        return wallNanos.clone();
+    }
+
+    long[] cpuNanos() {
+        return cpuNanos.clone();
+    }
+}
@@ -0,0 +1,136 @@
+package solver;
+
+import model.SudokuBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Races several solvers on the same puzzle, each on its own virtual thread and
+ * its own copy of the board, and keeps the first definitive answer (solved or
+ * proven unsolvable). The losers are stopped through a shared cancellation token
+ * and interrupted. Since different heuristics blow up on different puzzles, the
+ * race is only as slow as the best member on each puzzle.
+ */
+public class PortfolioSudokuSolver implements SudokuSolver {
+
+    private final List<SudokuSolver> members;
+
+    private final SequentialSudokuSolver validityChecker = new SequentialSudokuSolver();
+
+    /**
+     * Races MRV and first-empty backtracking, constraint propagation and dancing links.
+     * The board-based members share one {@link TranspositionTable}, so a state one of
+     * them proved dead is skipped by the others.
+     */
+    public PortfolioSudokuSolver() {
+        this(new TranspositionTable());
+    }
+
+    private PortfolioSudokuSolver(TranspositionTable deadStates) {
+        this(List.of(
+                new SequentialSudokuSolver(new MinimumRemainingValuesStrategy(), deadStates),
+                new SequentialSudokuSolver(new FirstEmptyCellStrategy(), deadStates),
+                new PropagatingSudokuSolver(new MinimumRemainingValuesStrategy(), deadStates),
+                new DlxSudokuSolver()));
+    }
+
+    public PortfolioSudokuSolver(List<SudokuSolver> members) {
+        if (members == null || members.isEmpty()) {
+            throw new IllegalArgumentException("Portfolio needs at least one solver.");
+        }
+        this.members = List.copyOf(members);
+    }
+
+    @Override
+    public boolean solve(int[][] board) {
+        return solve(board, CancellationToken.NONE).isSolved();
+    }
+
+    /**
+     * Returns the result of the first member to solve the puzzle or prove it unsolvable.
+     * If every member is stopped by {@code token} instead, returns one of their results.
+     */
+    @Override
+    public SolveResult solve(int[][] board, CancellationToken token) {
+        if (board == null) {
+            throw new IllegalArgumentException("Board must not be null.");
+        }
+        new SudokuBoard(board); // reject malformed input once, instead of in every member
+
+        // Cancelled once there is a winner, and by the caller's token.
+        CancellationToken stop = token.newChild();
+        List<Future<SolveResult>> runs = new ArrayList<>(members.size());
+        SolveResult winner = null;
+        SolveResult stopped = null;
+        ExecutionException failure = null;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<SolveResult> race = new ExecutorCompletionService<>(executor);
+            for (SudokuSolver member : members) {
+                int[][] copy = copyOf(board);
+                runs.add(race.submit(() -> member.solve(copy, stop)));
+            }
+
+            try {
+                for (int finished = 0; finished < runs.size() && winner == null; finished++) {
+                    try {
+                        SolveResult result = race.take().get();
+                        if (result.getStatus() == SolveStatus.SOLVED || result.getStatus() == SolveStatus.UNSOLVABLE) {
+                            winner = result;
+                        } else {
+                            stopped = result;
+                        }
+                    } catch (ExecutionException e) {
+                        // A broken member only drops out of the race.
+                        failure = e;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                stop.cancel();
+                for (Future<SolveResult> run : runs) {
+                    run.cancel(true);
+                }
+            }
+        } // close() waits for the losers, which stop at their next token check
+
+        if (winner != null) {
+            if (winner.isSolved()) {
+                int[][] solution = winner.getSolution();
+                for (int row = 0; row < board.length; row++) {
+                    System.arraycopy(solution[row], 0, board[row], 0, board.length);
+                }
+            }
+            return winner;
+        }
+        if (stopped != null) {
+            return stopped;
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Every solver in the portfolio failed.", failure.getCause());
+        }
+        // Interrupted before any member finished.
+        return new SolveResult(SolveStatus.CANCELLED, null, new SearchStatistics(), new PhaseTimer());
+    }
+
+    @Override
+    public boolean isValid(int[][] board, int row, int col, int num) {
+        return validityChecker.isValid(board, row, col, num);
+    }
+
+    private static int[][] copyOf(int[][] board) {
+        int[][] copy = new int[board.length][];
+        for (int row = 0; row < board.length; row++) {
+            copy[row] = board[row].clone();
+        }
+        return copy;
+    }
+}
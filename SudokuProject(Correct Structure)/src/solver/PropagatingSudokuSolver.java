@@ -0,0 +1,249 @@
+package solver;
+
+import model.SudokuBoard;
+
+/**
+ * Backtracking solver that runs naked-single and hidden-single propagation to a
+ * fixed point before every branch.
+ *
+ * All placements made by propagation or branching are pushed onto a trail of
+ * cell indices; backtracking pops the trail back to a mark instead of copying
+ * the board, so a failed branch costs O(cells it filled).
+ */
+public class PropagatingSudokuSolver implements SudokuSolver {
+
+    private final CellSelectionStrategy cellSelection;
+
+    // Dead states shared with other searches, or null.
+    private final TranspositionTable deadStates;
+
+    private final SequentialSudokuSolver validityChecker = new SequentialSudokuSolver();
+
+    public PropagatingSudokuSolver() {
+        this(new MinimumRemainingValuesStrategy());
+    }
+
+    public PropagatingSudokuSolver(CellSelectionStrategy cellSelection) {
+        this(cellSelection, null);
+    }
+
+    /**
+     * Creates a solver that skips states recorded as dead in {@code deadStates} and
+     * records the states it exhausts there, both before and after propagation. The
+     * table may be shared with other solvers and threads; null searches without one.
+     */
+    public PropagatingSudokuSolver(CellSelectionStrategy cellSelection, TranspositionTable deadStates) {
+        if (cellSelection == null) {
+            throw new IllegalArgumentException("Cell selection strategy must not be null.");
+        }
+        this.cellSelection = cellSelection;
+        this.deadStates = deadStates;
+    }
+
+    @Override
+    public boolean solve(int[][] board) {
+        return solve(board, CancellationToken.NONE).isSolved();
+    }
+
+    @Override
+    public SolveResult solve(int[][] board, CancellationToken token) {
+        if (board == null) {
+            throw new IllegalArgumentException("Board must not be null.");
+        }
+
+        PhaseTimer timer = new PhaseTimer();
+        timer.start(SolveResult.Phase.SETUP);
+        SudokuBoard modelBoard = new SudokuBoard(board);
+        SearchStatistics statistics = new SearchStatistics();
+
+        timer.start(SolveResult.Phase.SEARCH);
+        if (!solve(modelBoard, statistics, token)) {
+            return new SolveResult(SolveStatus.of(false, token), null, statistics, timer);
+        }
+
+        timer.start(SolveResult.Phase.COPY_BACK);
+        modelBoard.copyTo(board);
+        return new SolveResult(SolveStatus.SOLVED, modelBoard, statistics, timer);
+    }
+
+    @Override
+    public boolean solve(int[] cells) {
+        SudokuBoard modelBoard = new SudokuBoard(cells);
+        if (!solve(modelBoard)) {
+            return false;
+        }
+        modelBoard.copyTo(cells);
+        return true;
+    }
+
+    /**
+     * Solves the board in-place. On failure the board is left as it was passed in.
+     */
+    public boolean solve(SudokuBoard board) {
+        return solve(board, new SearchStatistics());
+    }
+
+    /**
+     * Same as {@link #solve(SudokuBoard)}, recording visited nodes into {@code statistics}.
+     */
+    public boolean solve(SudokuBoard board, SearchStatistics statistics) {
+        return solve(board, statistics, CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #solve(SudokuBoard, SearchStatistics)}, but gives up (returning false)
+     * once {@code token} stops.
+     */
+    public boolean solve(SudokuBoard board, SearchStatistics statistics, CancellationToken token) {
+        if (token.isCancelled()) {
+            return false;
+        }
+        // Scratch for the hidden-single pass, shared by every node of this solve like the trail.
+        long[] unitCandidates = new long[board.getSize()];
+        return search(board, new SearchTrail(board), unitCandidates, statistics, token);
+    }
+
+    @Override
+    public boolean isValid(int[][] board, int row, int col, int num) {
+        return validityChecker.isValid(board, row, col, num);
+    }
+
+    private boolean search(SudokuBoard board, SearchTrail trail, long[] unitCandidates,
+                           SearchStatistics statistics, CancellationToken token) {
+        statistics.recordNode(trail.size());
+        if (token.shouldStop(statistics.getNodeCount())) {
+            return false;
+        }
+
+        long entryHash = board.getZobristHash();
+        if (isDead(entryHash)) {
+            return false;
+        }
+
+        int mark = trail.size();
+        if (!propagate(board, trail, unitCandidates)) {
+            trail.undoTo(board, mark);
+            markDead(entryHash);
+            return false;
+        }
+
+        // Different branch orders often propagate to the same state.
+        long propagatedHash = board.getZobristHash();
+        if (propagatedHash != entryHash && isDead(propagatedHash)) {
+            trail.undoTo(board, mark);
+            markDead(entryHash);
+            return false;
+        }
+
+        int cell = cellSelection.selectCell(board);
+        if (cell < 0) {
+            return true; // solved
+        }
+
+        int branchMark = trail.size();
+        long candidates = board.candidatesMaskAtUnchecked(cell);
+        while (candidates != 0) {
+            int numToTry = Long.numberOfTrailingZeros(candidates) + 1;
+            candidates &= candidates - 1;
+
+            board.setValueAtUnchecked(cell, numToTry);
+            trail.push(cell);
+            if (search(board, trail, unitCandidates, statistics, token)) {
+                return true;
+            }
+            trail.undoTo(board, branchMark);
+            statistics.recordBacktrack();
+            if (token.hasStopped()) {
+                break;
+            }
+        }
+
+        trail.undoTo(board, mark);
+        if (!token.hasStopped()) {
+            markDead(propagatedHash);
+            markDead(entryHash);
+        }
+        return false; // dead end
+    }
+
+    private boolean isDead(long hash) {
+        return deadStates != null && deadStates.isDead(hash);
+    }
+
+    private void markDead(long hash) {
+        if (deadStates != null) {
+            deadStates.markDead(hash);
+        }
+    }
+
+    /**
+     * Fills naked and hidden singles until nothing changes, using {@code unitCandidates}
+     * (one mask per cell of a unit) as scratch.
+     * @return false if some cell or digit was left with no legal place
+     */
+    private boolean propagate(SudokuBoard board, SearchTrail trail, long[] unitCandidates) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            // Naked singles: cells with exactly one candidate.
+            for (int cell = 0; cell < board.getCellCount(); cell++) {
+                if (board.getValueAtUnchecked(cell) != 0) {
+                    continue;
+                }
+                long candidates = board.candidatesMaskAtUnchecked(cell);
+                if (candidates == 0) {
+                    return false;
+                }
+                if ((candidates & (candidates - 1)) == 0) {
+                    board.setValueAtUnchecked(cell, Long.numberOfTrailingZeros(candidates) + 1);
+                    trail.push(cell);
+                    changed = true;
+                }
+            }
+
+            // Hidden singles: digits with exactly one possible cell in a unit.
+            for (int unit = 0; unit < board.getUnitCount(); unit++) {
+                board.unitCandidates(unit, unitCandidates);
+                long seenOnce = 0;
+                long seenTwice = 0;
+                for (long candidates : unitCandidates) {
+                    seenTwice |= seenOnce & candidates;
+                    seenOnce |= candidates;
+                }
+
+                long missing = board.getAllDigitsMask() & ~board.getUnitMask(unit);
+                if ((missing & ~seenOnce) != 0) {
+                    return false;
+                }
+
+                long hidden = missing & seenOnce & ~seenTwice;
+                while (hidden != 0) {
+                    long bit = hidden & -hidden;
+                    hidden &= hidden - 1;
+                    if (!placeHiddenSingle(board, trail, unit, bit)) {
+                        return false;
+                    }
+                    changed = true;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean placeHiddenSingle(SudokuBoard board, SearchTrail trail, int unit, long bit) {
+        for (int position = 0; position < board.getSize(); position++) {
+            int cell = board.getUnitCell(unit, position);
+            if (board.getValueAtUnchecked(cell) != 0) {
+                continue;
+            }
+            // Candidates are re-read because earlier placements in this pass may have taken the digit.
+            if ((board.candidatesMaskAtUnchecked(cell) & bit) != 0) {
+                board.setValueAtUnchecked(cell, Long.numberOfTrailingZeros(bit) + 1);
+                trail.push(cell);
+                return true;
+            }
+        }
+        return false;
+    }
+}
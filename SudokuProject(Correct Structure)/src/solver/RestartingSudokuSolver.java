@@ -0,0 +1,204 @@
+package solver;
+
+import model.SudokuBoard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Randomized backtracking with restarts.
+ *
+ * Cells are picked by minimum remaining values with ties broken at random, and
+ * the candidates of a cell are tried in random order. Each run is cut off after
+ * a node budget that follows the Luby sequence (1, 1, 2, 1, 1, 2, 4, ...) times
+ * {@code restartUnit}; the next run starts over from the input board with fresh
+ * random choices. A run that finishes within its budget is conclusive, so an
+ * unsolvable puzzle is still reported as such.
+ *
+ * Restarts stop one unlucky early choice from dominating the runtime. Every
+ * solve starts from the same seed, so node counts are reproducible.
+ */
+public class RestartingSudokuSolver implements SudokuSolver {
+
+    /**
+     * Nodes in one unit of the Luby sequence. Smaller units restart MRV searches
+     * too early to pay off on the bundled puzzles.
+     */
+    public static final long DEFAULT_RESTART_UNIT = 4096;
+
+    /** Restart unit that disables restarts, leaving a single randomized run. */
+    public static final long NO_RESTARTS = Long.MAX_VALUE;
+
+    private static final int EXHAUSTED = 0;
+    private static final int SOLVED = 1;
+    private static final int CUT_OFF = 2;
+
+    private final long seed;
+
+    private final long restartUnit;
+
+    private final SequentialSudokuSolver validityChecker = new SequentialSudokuSolver();
+
+    public RestartingSudokuSolver() {
+        this(0L);
+    }
+
+    public RestartingSudokuSolver(long seed) {
+        this(seed, DEFAULT_RESTART_UNIT);
+    }
+
+    /**
+     * @param restartUnit nodes in one unit of the Luby sequence, or {@link #NO_RESTARTS}
+     */
+    public RestartingSudokuSolver(long seed, long restartUnit) {
+        if (restartUnit < 1) {
+            throw new IllegalArgumentException("restartUnit must be >= 1");
+        }
+        this.seed = seed;
+        this.restartUnit = restartUnit;
+    }
+
+    @Override
+    public boolean solve(int[][] board) {
+        return solve(board, CancellationToken.NONE).isSolved();
+    }
+
+    @Override
+    public SolveResult solve(int[][] board, CancellationToken token) {
+        if (board == null) {
+            throw new IllegalArgumentException("Board must not be null.");
+        }
+
+        PhaseTimer timer = new PhaseTimer();
+        timer.start(SolveResult.Phase.SETUP);
+        SudokuBoard modelBoard = new SudokuBoard(board);
+        SearchStatistics statistics = new SearchStatistics();
+
+        timer.start(SolveResult.Phase.SEARCH);
+        if (!solve(modelBoard, statistics, token)) {
+            return new SolveResult(SolveStatus.of(false, token), null, statistics, timer);
+        }
+
+        timer.start(SolveResult.Phase.COPY_BACK);
+        modelBoard.copyTo(board);
+        return new SolveResult(SolveStatus.SOLVED, modelBoard, statistics, timer);
+    }
+
+    /**
+     * Solves the board in-place, recording nodes of every run into {@code statistics}.
+     * On failure the board is left as it was passed in.
+     */
+    public boolean solve(SudokuBoard board, SearchStatistics statistics) {
+        return solve(board, statistics, CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #solve(SudokuBoard, SearchStatistics)}, but gives up (returning false)
+     * once {@code token} stops.
+     */
+    public boolean solve(SudokuBoard board, SearchStatistics statistics, CancellationToken token) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int run = 1; !token.isCancelled(); run++) {
+            long budget = lubyBudget(run);
+            long nodeLimit = budget > Long.MAX_VALUE - statistics.getNodeCount()
+                    ? Long.MAX_VALUE
+                    : statistics.getNodeCount() + budget;
+
+            int outcome = search(board, random, statistics, token, 0, nodeLimit);
+            if (outcome != CUT_OFF) {
+                return outcome == SOLVED;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isValid(int[][] board, int row, int col, int num) {
+        return validityChecker.isValid(board, row, col, num);
+    }
+
+    /**
+     * Returns the {@code i}-th term (1-based) of the Luby sequence: 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, ...
+     */
+    public static long luby(int i) {
+        if (i < 1) {
+            throw new IllegalArgumentException("Luby index must be >= 1");
+        }
+        while (true) {
+            // Find k with 2^(k-1) <= i < 2^k.
+            int k = 32 - Integer.numberOfLeadingZeros(i);
+            if (i == (1 << k) - 1) {
+                return 1L << (k - 1);
+            }
+            i -= (1 << (k - 1)) - 1;
+        }
+    }
+
+    private long lubyBudget(int run) {
+        long factor = luby(run);
+        return restartUnit > Long.MAX_VALUE / factor ? Long.MAX_VALUE : restartUnit * factor;
+    }
+
+    private int search(SudokuBoard board, SplittableRandom random, SearchStatistics statistics,
+                       CancellationToken token, int depth, long nodeLimit) {
+        statistics.recordNode(depth);
+        if (statistics.getNodeCount() > nodeLimit || token.shouldStop(statistics.getNodeCount())) {
+            return CUT_OFF;
+        }
+
+        int cell = selectCell(board, random);
+        if (cell < 0) {
+            return SOLVED;
+        }
+
+        long candidates = board.candidatesMaskAtUnchecked(cell);
+        while (candidates != 0) {
+            long bit = pickRandomBit(candidates, random);
+            candidates &= ~bit;
+
+            board.setValueAtUnchecked(cell, Long.numberOfTrailingZeros(bit) + 1);
+            int outcome = search(board, random, statistics, token, depth + 1, nodeLimit);
+            if (outcome == SOLVED) {
+                return SOLVED;
+            }
+            if (outcome == CUT_OFF || token.hasStopped()) {
+                board.clearCellAtUnchecked(cell);
+                return CUT_OFF;
+            }
+            statistics.recordBacktrack();
+        }
+        board.clearCellAtUnchecked(cell);
+        return EXHAUSTED;
+    }
+
+    // Minimum remaining values, choosing uniformly among the cells tied for fewest candidates.
+    private static int selectCell(SudokuBoard board, SplittableRandom random) {
+        int bestCell = -1;
+        int bestCount = Integer.MAX_VALUE;
+        int ties = 0;
+
+        for (int index = 0; index < board.getCellCount(); index++) {
+            if (board.getValueAtUnchecked(index) != 0) {
+                continue;
+            }
+            int count = Long.bitCount(board.candidatesMaskAtUnchecked(index));
+            if (count < bestCount) {
+                bestCell = index;
+                bestCount = count;
+                ties = 1;
+                if (count <= 1) {
+                    break; // forced or dead: no point in randomizing
+                }
+            } else if (count == bestCount && random.nextInt(++ties) == 0) {
+                bestCell = index;
+            }
+        }
+        return bestCell;
+    }
+
+    private static long pickRandomBit(long mask, SplittableRandom random) {
+        for (int skip = random.nextInt(Long.bitCount(mask)); skip > 0; skip--) {
+            mask &= mask - 1;
+        }
+        return mask & -mask;
+    }
+}
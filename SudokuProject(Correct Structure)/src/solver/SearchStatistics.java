@@ -0,0 +1,100 @@
+package solver;
+
+/**
+ * Counters collected while searching. Not thread-safe: each thread records into its own
+ * instance, and parallel solvers {@link #add} those instances together once a task is done.
+ */
+public class SearchStatistics {
+
+    private long nodeCount;
+    private long backtrackCount;
+    private long forkCount;
+    private int maxDepth;
+    private long cpuTimeNanos;
+
+    /**
+     * Records one visited search node (a board state on which the search branched or stopped).
+     */
+    public void recordNode() {
+        nodeCount++;
+    }
+
+    /**
+     * Records one visited search node {@code depth} placements below the root of the search.
+     */
+    public void recordNode(int depth) {
+        nodeCount++;
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+    }
+
+    /**
+     * Records a placement that was undone because the subtree below it failed.
+     */
+    public void recordBacktrack() {
+        backtrackCount++;
+    }
+
+    /**
+     * Records {@code count} tasks handed to other workers.
+     */
+    public void recordForks(int count) {
+        forkCount += count;
+    }
+
+    /**
+     * Records CPU time spent by a worker thread on this search.
+     */
+    public void recordCpuTime(long nanos) {
+        cpuTimeNanos += nanos;
+    }
+
+    /**
+     * Adds the counters of {@code other}, whose depths were measured from a node
+     * {@code depthOffset} placements below this search's root.
+     */
+    public void add(SearchStatistics other, int depthOffset) {
+        nodeCount += other.nodeCount;
+        backtrackCount += other.backtrackCount;
+        forkCount += other.forkCount;
+        cpuTimeNanos += other.cpuTimeNanos;
+        if (other.maxDepth + depthOffset > maxDepth) {
+            maxDepth = other.maxDepth + depthOffset;
+        }
+    }
+
+    /**
+     * Zeroes every counter so the instance can be reused for another search.
+     */
+    public void reset() {
+        nodeCount = 0;
+        backtrackCount = 0;
+        forkCount = 0;
+        maxDepth = 0;
+        cpuTimeNanos = 0;
+    }
+
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    public long getBacktrackCount() {
+        return backtrackCount;
+    }
+
+    public long getForkCount() {
+        return forkCount;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * CPU time recorded by worker threads; zero for searches that ran on the calling thread only.
+     */
+    public long getCpuTimeNanos() {
+        return cpuTimeNanos;
+    }
+}
@@ -0,0 +1,40 @@
+package solver;
+
+import model.SudokuBoard;
+
+/**
+ * Undo log for searches that work on one board in place: the cells filled since
+ * the search started, most recent last. Going back to an earlier state means
+ * clearing the cells above a mark. {@link SudokuBoard} keeps its row, column and
+ * box masks in step with the cells, so no mask needs saving: each undone
+ * placement costs O(1) and a backtrack costs O(placements undone).
+ */
+public final class SearchTrail {
+
+    private final int[] cells;
+    private int size;
+
+    /**
+     * Creates a trail with room for every cell of {@code board}.
+     */
+    public SearchTrail(SudokuBoard board) {
+        this.cells = new int[board.getCellCount()];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void push(int cell) {
+        cells[size++] = cell;
+    }
+
+    /**
+     * Clears every cell pushed after {@code mark}, newest first.
+     */
+    public void undoTo(SudokuBoard board, int mark) {
+        while (size > mark) {
+            board.clearCellAtUnchecked(cells[--size]);
+        }
+    }
+}
@@ -1,27 +1,95 @@
 package solver;
 
+import model.SudokuBoard;
+
 public class SequentialSudokuSolver implements SudokuSolver {
 
+    private final CellSelectionStrategy cellSelection;
+
+    // Dead states shared with other searches, or null.
+    private final TranspositionTable deadStates;
+
+    public SequentialSudokuSolver() {
+        this(new MinimumRemainingValuesStrategy());
+    }
+
+    public SequentialSudokuSolver(CellSelectionStrategy cellSelection) {
+        this(cellSelection, null);
+    }
+
+    /**
+     * Creates a solver that skips states recorded as dead in {@code deadStates} and
+     * records the states it exhausts there. The table may be shared with other
+     * solvers and threads; null searches without one.
+     */
+    public SequentialSudokuSolver(CellSelectionStrategy cellSelection, TranspositionTable deadStates) {
+        if (cellSelection == null) {
+            throw new IllegalArgumentException("Cell selection strategy must not be null.");
+        }
+        this.cellSelection = cellSelection;
+        this.deadStates = deadStates;
+    }
+
     @Override
     public boolean solve(int[][] board) {
-        for (int row = 0; row < GRID_SIZE; row++) {
-            for (int col = 0; col < GRID_SIZE; col++) {
-                if (board[row][col] == 0) {
-                    for (int numToTry = 1; numToTry <= GRID_SIZE; numToTry++) {
-                        if (isValid(board, row, col, numToTry)) {
-                            board[row][col] = numToTry;
-                            if (solve(board)) {
-                                return true;
-                            } else {
-                                board[row][col] = 0;
-                            }
-                        }
-                    }
-                    return false; // dead end
-                }
-            }
+        return solve(board, CancellationToken.NONE).isSolved();
+    }
+
+    @Override
+    public SolveResult solve(int[][] board, CancellationToken token) {
+        if (board == null) {
+            throw new IllegalArgumentException("Board must not be null.");
+        }
+
+        PhaseTimer timer = new PhaseTimer();
+        timer.start(SolveResult.Phase.SETUP);
+        SudokuBoard modelBoard = new SudokuBoard(board);
+        SearchStatistics statistics = new SearchStatistics();
+
+        timer.start(SolveResult.Phase.SEARCH);
+        if (!solve(modelBoard, statistics, token)) {
+            return new SolveResult(SolveStatus.of(false, token), null, statistics, timer);
         }
-        return true; // solved
+
+        timer.start(SolveResult.Phase.COPY_BACK);
+        modelBoard.copyTo(board);
+        return new SolveResult(SolveStatus.SOLVED, modelBoard, statistics, timer);
+    }
+
+    @Override
+    public boolean solve(int[] cells) {
+        SudokuBoard modelBoard = new SudokuBoard(cells);
+        if (!solve(modelBoard)) {
+            return false;
+        }
+        modelBoard.copyTo(cells);
+        return true;
+    }
+
+    /**
+     * Solves the board in-place by backtracking. On failure the board is left
+     * as it was passed in.
+     */
+    public boolean solve(SudokuBoard board) {
+        return solve(board, new SearchStatistics());
+    }
+
+    /**
+     * Same as {@link #solve(SudokuBoard)}, recording visited nodes into {@code statistics}.
+     */
+    public boolean solve(SudokuBoard board, SearchStatistics statistics) {
+        return solve(board, statistics, CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #solve(SudokuBoard, SearchStatistics)}, but gives up (returning false)
+     * once {@code token} stops; callers tell the two apart with {@link SolveStatus#of}.
+     */
+    public boolean solve(SudokuBoard board, SearchStatistics statistics, CancellationToken token) {
+        if (token.isCancelled()) {
+            return false;
+        }
+        return search(board, statistics, token, 0);
     }
 
     @Override
@@ -31,25 +99,61 @@ public class SequentialSudokuSolver implements SudokuSolver {
                 && !isNumberInBox(board, num, row, col);
     }
 
+    private boolean search(SudokuBoard board, SearchStatistics statistics, CancellationToken token, int depth) {
+        statistics.recordNode(depth);
+        if (token.shouldStop(statistics.getNodeCount())) {
+            return false;
+        }
+        if (deadStates != null && deadStates.isDead(board.getZobristHash())) {
+            return false;
+        }
+
+        int cell = cellSelection.selectCell(board);
+        if (cell < 0) {
+            return true; // solved
+        }
+
+        long candidates = board.candidatesMaskAtUnchecked(cell);
+        while (candidates != 0) {
+            int numToTry = Long.numberOfTrailingZeros(candidates) + 1;
+            candidates &= candidates - 1;
+
+            board.setValueAtUnchecked(cell, numToTry);
+            if (search(board, statistics, token, depth + 1)) {
+                return true;
+            }
+            statistics.recordBacktrack();
+            if (token.hasStopped()) {
+                break;
+            }
+        }
+        board.clearCellAtUnchecked(cell);
+        if (deadStates != null && !token.hasStopped()) {
+            deadStates.markDead(board.getZobristHash());
+        }
+        return false; // dead end
+    }
+
     private boolean isNumberInRow(int[][] board, int num, int row) {
-        for (int i = 0; i < GRID_SIZE; i++) {
+        for (int i = 0; i < board.length; i++) {
             if (board[row][i] == num) return true;
         }
         return false;
     }
 
     private boolean isNumberInColumn(int[][] board, int num, int col) {
-        for (int i = 0; i < GRID_SIZE; i++) {
+        for (int i = 0; i < board.length; i++) {
             if (board[i][col] == num) return true;
         }
         return false;
     }
 
     private boolean isNumberInBox(int[][] board, int num, int row, int col) {
-        int localRow = row - row % 3;
-        int localCol = col - col % 3;
-        for (int r = localRow; r < localRow + 3; r++) {
-            for (int c = localCol; c < localCol + 3; c++) {
+        int boxSize = (int) Math.round(Math.sqrt(board.length));
+        int localRow = row - row % boxSize;
+        int localCol = col - col % boxSize;
+        for (int r = localRow; r < localRow + boxSize; r++) {
+            for (int c = localCol; c < localCol + boxSize; c++) {
                 if (board[r][c] == num) return true;
             }
         }
@@ -0,0 +1,133 @@
+package solver;
+
+import model.SudokuBoard;
+
+/**
+ * Outcome of a solve together with the work it took: search counters and the
+ * wall-clock and CPU time of each phase. CPU time of a parallel search is summed
+ * over the worker threads, so it can exceed the wall-clock time.
+ */
+public final class SolveResult {
+
+    /**
+     * Phases of a solve call.
+     */
+    public enum Phase {
+        /** Validating the input and building the solver's own board. */
+        SETUP,
+        /** Splitting the puzzle into subproblems up front; only used by {@link CubeAndConquerSudokuSolver}. */
+        FRONTIER,
+        /** The search itself. */
+        SEARCH,
+        /** Writing the solution back into the caller's array. */
+        COPY_BACK
+    }
+
+    private final SolveStatus status;
+    private final int[][] solution;
+    private final long nodeCount;
+    private final long backtrackCount;
+    private final int maxDepth;
+    private final long forkCount;
+    private final long[] wallNanos;
+    private final long[] cpuNanos;
+
+    /**
+     * @param solution the solved board, or null unless {@code status} is {@link SolveStatus#SOLVED}
+     */
+    public SolveResult(SolveStatus status, SudokuBoard solution, SearchStatistics statistics, PhaseTimer timer) {
+        if (status == null || statistics == null || timer == null) {
+            throw new IllegalArgumentException("Status, statistics and timer must not be null.");
+        }
+        if ((status == SolveStatus.SOLVED) != (solution != null)) {
+            throw new IllegalArgumentException("A solution must be given exactly when the status is SOLVED.");
+        }
+        timer.stop();
+        this.status = status;
+        this.solution = solution == null ? null : solution.toArray();
+        this.nodeCount = statistics.getNodeCount();
+        this.backtrackCount = statistics.getBacktrackCount();
+        this.maxDepth = statistics.getMaxDepth();
+        this.forkCount = statistics.getForkCount();
+        this.wallNanos = timer.wallNanos();
+        this.cpuNanos = timer.cpuNanos();
+    }
+
+    public SolveStatus getStatus() {
+        return status;
+    }
+
+    public boolean isSolved() {
+        return status == SolveStatus.SOLVED;
+    }
+
+    /**
+     * Returns a copy of the solved board, or null if the puzzle was not solved.
+     */
+    public int[][] getSolution() {
+        if (solution == null) {
+            return null;
+        }
+        int[][] copy = new int[solution.length][];
+        for (int row = 0; row < solution.length; row++) {
+            copy[row] = solution[row].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Number of search nodes visited; zero for solvers that do not count them.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Number of placements undone because the subtree below them failed.
+     */
+    public long getBacktrackCount() {
+        return backtrackCount;
+    }
+
+    /**
+     * Largest number of placements the search made below the input board.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Number of tasks handed to other workers; zero for sequential solvers.
+     */
+    public long getForkCount() {
+        return forkCount;
+    }
+
+    public long getWallTimeNanos(Phase phase) {
+        return wallNanos[phase.ordinal()];
+    }
+
+    public long getCpuTimeNanos(Phase phase) {
+        return cpuNanos[phase.ordinal()];
+    }
+
+    public long getTotalWallTimeNanos() {
+        long total = 0;
+        for (long nanos : wallNanos) {
+            total += nanos;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "SolveResult{" +
+                "status=" + status +
+                ", nodes=" + nodeCount +
+                ", backtracks=" + backtrackCount +
+                ", maxDepth=" + maxDepth +
+                ", forks=" + forkCount +
+                ", wallMs=" + getTotalWallTimeNanos() / 1_000_000.0 +
+                '}';
+    }
+}
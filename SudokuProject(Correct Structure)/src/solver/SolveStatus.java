@@ -0,0 +1,33 @@
+package solver;
+
+/**
+ * Outcome of a solve call.
+ */
+public enum SolveStatus {
+
+    /** The board was filled in with a solution. */
+    SOLVED,
+
+    /** The search space was exhausted: the puzzle has no solution. */
+    UNSOLVABLE,
+
+    /** The token's deadline passed before the search finished. */
+    TIMED_OUT,
+
+    /** The token was cancelled before the search finished. */
+    CANCELLED;
+
+    /**
+     * Maps a search result to a status: a search that did not succeed
+     * only counts as {@link #UNSOLVABLE} if it was not stopped by the token.
+     */
+    public static SolveStatus of(boolean solved, CancellationToken token) {
+        if (solved) {
+            return SOLVED;
+        }
+        if (token.isCancelled()) {
+            return token.isTimedOut() ? TIMED_OUT : CANCELLED;
+        }
+        return UNSOLVABLE;
+    }
+}
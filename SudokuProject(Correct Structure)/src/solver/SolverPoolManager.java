@@ -0,0 +1,144 @@
+package solver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns named ForkJoinPools for solver work, so solves don't compete with
+ * everything else on {@link ForkJoinPool#commonPool()}.
+ *
+ * Solvers that are given the same pool name share workers (co-scheduled);
+ * different names give isolated pools. Pools live until {@link #shutdown(String)}
+ * or {@link #shutdownAll()} is called.
+ */
+public class SolverPoolManager {
+
+    private static final SolverPoolManager DEFAULT = new SolverPoolManager();
+
+    private final ConcurrentMap<String, ForkJoinPool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the process-wide manager.
+     */
+    public static SolverPoolManager getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates a new pool under {@code name}.
+     * @throws IllegalStateException if a pool with that name already exists
+     */
+    public ForkJoinPool create(String name, int parallelism) {
+        validateName(name);
+        ForkJoinPool pool = newPool(name, parallelism);
+        if (pools.putIfAbsent(name, pool) != null) {
+            pool.shutdown();
+            throw new IllegalStateException("A solver pool named '" + name + "' already exists.");
+        }
+        return pool;
+    }
+
+    /**
+     * Returns the pool registered under {@code name}, creating it with the given
+     * parallelism if it does not exist yet. An existing pool keeps its parallelism.
+     */
+    public ForkJoinPool getOrCreate(String name, int parallelism) {
+        validateName(name);
+        validateParallelism(parallelism);
+        return pools.computeIfAbsent(name, key -> newPool(key, parallelism));
+    }
+
+    /**
+     * Returns the pool registered under {@code name}, or null if there is none.
+     */
+    public ForkJoinPool get(String name) {
+        return pools.get(name);
+    }
+
+    /**
+     * Stops accepting work on the named pool and forgets it. Running solves finish.
+     * @return true if a pool with that name existed
+     */
+    public boolean shutdown(String name) {
+        ForkJoinPool pool = pools.remove(name);
+        if (pool == null) {
+            return false;
+        }
+        pool.shutdown();
+        return true;
+    }
+
+    /**
+     * Shuts down every managed pool and waits up to {@code timeout} for each to finish.
+     * @return true if all pools terminated in time
+     */
+    public boolean shutdownAll(long timeout, TimeUnit unit) throws InterruptedException {
+        Map<String, ForkJoinPool> snapshot = new LinkedHashMap<>(pools);
+        pools.keySet().removeAll(snapshot.keySet());
+        for (ForkJoinPool pool : snapshot.values()) {
+            pool.shutdown();
+        }
+        boolean terminated = true;
+        for (ForkJoinPool pool : snapshot.values()) {
+            terminated &= pool.awaitTermination(timeout, unit);
+        }
+        return terminated;
+    }
+
+    /**
+     * Shuts down every managed pool without waiting.
+     */
+    public void shutdownAll() {
+        for (String name : pools.keySet()) {
+            shutdown(name);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the named pool's counters, or null if there is no such pool.
+     */
+    public SolverPoolStats stats(String name) {
+        ForkJoinPool pool = pools.get(name);
+        return pool == null ? null : SolverPoolStats.of(name, pool);
+    }
+
+    /**
+     * Returns snapshots for all managed pools, keyed by name.
+     */
+    public Map<String, SolverPoolStats> allStats() {
+        Map<String, SolverPoolStats> stats = new LinkedHashMap<>();
+        for (Map.Entry<String, ForkJoinPool> entry : pools.entrySet()) {
+            stats.put(entry.getKey(), SolverPoolStats.of(entry.getKey(), entry.getValue()));
+        }
+        return stats;
+    }
+
+    private static ForkJoinPool newPool(String name, int parallelism) {
+        validateParallelism(parallelism);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("sudoku-" + name + "-worker-" + threadNumber.incrementAndGet());
+            return thread;
+        };
+        return new ForkJoinPool(parallelism, factory, null, false);
+    }
+
+    private static void validateName(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Pool name must not be null or empty.");
+        }
+    }
+
+    private static void validateParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+    }
+}
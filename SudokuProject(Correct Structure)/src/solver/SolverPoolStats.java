@@ -0,0 +1,89 @@
+package solver;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Point-in-time snapshot of a solver pool's counters.
+ */
+public final class SolverPoolStats {
+
+    private final String name;
+    private final int parallelism;
+    private final int poolSize;
+    private final int activeThreadCount;
+    private final int runningThreadCount;
+    private final long queuedTaskCount;
+    private final int queuedSubmissionCount;
+    private final long stealCount;
+    private final boolean shutdown;
+
+    private SolverPoolStats(String name, ForkJoinPool pool) {
+        this.name = name;
+        this.parallelism = pool.getParallelism();
+        this.poolSize = pool.getPoolSize();
+        this.activeThreadCount = pool.getActiveThreadCount();
+        this.runningThreadCount = pool.getRunningThreadCount();
+        this.queuedTaskCount = pool.getQueuedTaskCount();
+        this.queuedSubmissionCount = pool.getQueuedSubmissionCount();
+        this.stealCount = pool.getStealCount();
+        this.shutdown = pool.isShutdown();
+    }
+
+    public static SolverPoolStats of(String name, ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null.");
+        }
+        return new SolverPoolStats(name, pool);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getActiveThreadCount() {
+        return activeThreadCount;
+    }
+
+    public int getRunningThreadCount() {
+        return runningThreadCount;
+    }
+
+    public long getQueuedTaskCount() {
+        return queuedTaskCount;
+    }
+
+    public int getQueuedSubmissionCount() {
+        return queuedSubmissionCount;
+    }
+
+    public long getStealCount() {
+        return stealCount;
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public String toString() {
+        return "SolverPoolStats{" +
+               "name=" + name +
+               ", parallelism=" + parallelism +
+               ", poolSize=" + poolSize +
+               ", active=" + activeThreadCount +
+               ", running=" + runningThreadCount +
+               ", queuedTasks=" + queuedTaskCount +
+               ", queuedSubmissions=" + queuedSubmissionCount +
+               ", steals=" + stealCount +
+               ", shutdown=" + shutdown +
+               '}';
+    }
+}
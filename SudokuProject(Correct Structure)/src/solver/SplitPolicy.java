@@ -0,0 +1,18 @@
+package solver;
+
+import model.SudokuBoard;
+
+/**
+ * Decides, at a search node, whether a parallel solver should fork the node's
+ * branches as separate tasks or search the subtree sequentially.
+ */
+public interface SplitPolicy {
+
+    /**
+     * @param board          search state at the node
+     * @param depth          number of split levels above this node
+     * @param candidateCount number of digits the node would branch on
+     * @return true to fork one task per candidate, false to finish the subtree in the current task
+     */
+    boolean shouldSplit(SudokuBoard board, int depth, int candidateCount);
+}
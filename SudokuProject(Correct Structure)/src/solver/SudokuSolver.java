@@ -1,18 +1,71 @@
 package solver;
 
+import model.SudokuBoard;
+
 /**
  * Solver API used by all solver implementations.
  */
 public interface SudokuSolver {
     int GRID_SIZE = 9;
+    int CELL_COUNT = GRID_SIZE * GRID_SIZE;
 
     /**
      * Try to solve the provided board in-place.
-     * @param board 9x9 sudoku board (0 = empty)
+     * @param board 9x9 sudoku board, or any board of box order 2 to 6 (0 = empty)
      * @return true if solved, false otherwise
      */
     boolean solve(int[][] board);
 
+    /**
+     * Try to solve the provided board in-place, giving up once {@code token} stops,
+     * and report how much work the solve took.
+     * Implementations poll the token at node boundaries and fill in their search
+     * counters; this default only checks the token before delegating to
+     * {@link #solve(int[][])} and reports timings alone.
+     * @param board 9x9 sudoku board (0 = empty)
+     * @param token deadline / cancellation signal, {@link CancellationToken#NONE} for none
+     * @return whether the board was solved, proven unsolvable, or stopped by the token,
+     *         with the solution and search statistics
+     */
+    default SolveResult solve(int[][] board, CancellationToken token) {
+        PhaseTimer timer = new PhaseTimer();
+        SearchStatistics statistics = new SearchStatistics();
+        if (token.isCancelled()) {
+            return new SolveResult(SolveStatus.of(false, token), null, statistics, timer);
+        }
+        timer.start(SolveResult.Phase.SEARCH);
+        if (!solve(board)) {
+            return new SolveResult(SolveStatus.UNSOLVABLE, null, statistics, timer);
+        }
+        return new SolveResult(SolveStatus.SOLVED, new SudokuBoard(board), statistics, timer);
+    }
+
+    /**
+     * Try to solve a board given as row-major cell values, in-place.
+     * Implementations should override this to skip the 2D conversion done here.
+     * @param cells 81 cell values for a 9x9 board, or side*side values for a larger one (0 = empty)
+     * @return true if solved, false otherwise
+     */
+    default boolean solve(int[] cells) {
+        int side = cells == null ? 0 : (int) Math.round(Math.sqrt(cells.length));
+        int boxSize = (int) Math.round(Math.sqrt(side));
+        if (cells == null || side * side != cells.length || boxSize * boxSize != side
+                || boxSize < SudokuBoard.MIN_BOX_SIZE || boxSize > SudokuBoard.MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("Cells must be a non-null array of 16, 81, 256, 625 or 1296 values.");
+        }
+        int[][] board = new int[side][side];
+        for (int row = 0; row < side; row++) {
+            System.arraycopy(cells, row * side, board[row], 0, side);
+        }
+        if (!solve(board)) {
+            return false;
+        }
+        for (int row = 0; row < side; row++) {
+            System.arraycopy(board[row], 0, cells, row * side, side);
+        }
+        return true;
+    }
+
     /**
      * Check if placing num at (row, col) is valid.
      */
@@ -0,0 +1,99 @@
+package solver;
+
+import model.SudokuBoard;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers board states whose subtree has been searched to exhaustion without a
+ * solution, keyed by {@link SudokuBoard#getZobristHash()}, so a search reaching the
+ * same state again (by another branch order, another run, or another solver) can
+ * cut it off at once.
+ *
+ * Whether a state has a solution depends only on its cell values, not on how it was
+ * reached or which puzzle it came from, so one table can be shared by any number of
+ * threads, solvers and puzzles. It is a fixed-size, lock-free array indexed by the
+ * low bits of the hash: a new entry simply overwrites whatever shared its slot, so
+ * memory stays bounded and a lost entry only costs a re-search. Two different states
+ * are confused only if their 64-bit hashes are equal, which is negligibly rare.
+ */
+public final class TranspositionTable {
+
+    /** 64K slots, 512 KB. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    // Slot value 0 means empty; the only state hashing to 0 is the empty board, which is never dead.
+    private final AtomicLongArray slots;
+    private final int indexMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    public TranspositionTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be in [1, 2^30]");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicLongArray(size);
+        this.indexMask = size - 1;
+    }
+
+    /**
+     * Returns true if the state with this hash is known to have no solution.
+     */
+    public boolean isDead(long hash) {
+        if (hash != 0 && slots.get(slotOf(hash)) == hash) {
+            hits.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records that the state with this hash has no solution. Only call this after
+     * the subtree was searched completely, not when the search was stopped early.
+     */
+    public void markDead(long hash) {
+        if (hash != 0) {
+            slots.set(slotOf(hash), hash);
+            stores.increment();
+        }
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * Number of lookups that found a dead state, i.e. subtrees not searched again.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getStoreCount() {
+        return stores.sum();
+    }
+
+    private int slotOf(long hash) {
+        // The low bits of a Zobrist hash are as random as the high ones.
+        return (int) hash & indexMask;
+    }
+
+    @Override
+    public String toString() {
+        return "TranspositionTable{" +
+                "capacity=" + getCapacity() +
+                ", hits=" + getHitCount() +
+                ", stores=" + getStoreCount() +
+                '}';
+    }
+}
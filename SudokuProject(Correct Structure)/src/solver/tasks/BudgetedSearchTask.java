@@ -0,0 +1,125 @@
+package solver.tasks;
+
+import model.SudokuBoard;
+import solver.CancellationToken;
+import solver.CellSelectionStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Depth-first search that stays sequential until it has visited {@code nodeBudget}
+ * nodes, then hands all of its remaining work to other workers.
+ *
+ * When the budget runs out the search unwinds, and on the way up every node on
+ * the current path turns its untried candidates into subtasks (the deepest node
+ * turns into a subtask as a whole). Those subtasks cover exactly the part of the
+ * tree not yet explored, are forked so idle workers can steal them, and each gets
+ * a fresh budget, so a hard subtree keeps splitting while easy ones never pay for
+ * a fork.
+ */
+public class BudgetedSearchTask extends RecursiveAction {
+
+    private static final int FAILED = 0;
+    private static final int FOUND = 1;
+    private static final int SPLIT = 2;
+
+    private final SudokuBoard board;
+    private final AtomicReference<SudokuBoard> solution;
+    private final CancellationToken stop;
+    private final CellSelectionStrategy cellSelection;
+    private final long nodeBudget;
+
+    private long nodeCount;
+
+    /**
+     * @param board board to search; owned by the task, and published as the solution if completed
+     * @param stop  token of this puzzle alone; cancelled once a solution has been published
+     */
+    public BudgetedSearchTask(SudokuBoard board,
+                              AtomicReference<SudokuBoard> solution,
+                              CancellationToken stop,
+                              CellSelectionStrategy cellSelection,
+                              long nodeBudget) {
+        if (nodeBudget < 1) {
+            throw new IllegalArgumentException("nodeBudget must be >= 1");
+        }
+        this.board = board;
+        this.solution = solution;
+        this.stop = stop;
+        this.cellSelection = cellSelection;
+        this.nodeBudget = nodeBudget;
+    }
+
+    @Override
+    protected void compute() {
+        if (stop.isCancelled()) {
+            return;
+        }
+
+        List<BudgetedSearchTask> remainingWork = new ArrayList<>();
+        int outcome = search(cellSelection.selectCell(board), remainingWork);
+        if (outcome == FOUND) {
+            if (solution.compareAndSet(null, board)) {
+                stop.cancel();
+            }
+        } else if (outcome == SPLIT) {
+            // Deepest node first, so this worker carries on where the search stopped.
+            invokeAll(remainingWork);
+        }
+    }
+
+    private int search(int cell, List<BudgetedSearchTask> remainingWork) {
+        nodeCount++;
+        if (stop.shouldStop(nodeCount)) {
+            return FAILED;
+        }
+        if (cell < 0) {
+            return FOUND;
+        }
+        if (nodeCount > nodeBudget) {
+            remainingWork.add(child(board.clone()));
+            return SPLIT;
+        }
+
+        long candidates = board.candidatesMaskAtUnchecked(cell);
+        while (candidates != 0) {
+            int numToTry = Long.numberOfTrailingZeros(candidates) + 1;
+            candidates &= candidates - 1;
+
+            board.setValueAtUnchecked(cell, numToTry);
+            int outcome = search(cellSelection.selectCell(board), remainingWork);
+            if (outcome == FOUND) {
+                return FOUND;
+            }
+            if (outcome == SPLIT) {
+                splitRemaining(cell, candidates, remainingWork);
+                board.clearCellAtUnchecked(cell);
+                return SPLIT;
+            }
+            if (stop.hasStopped()) {
+                break;
+            }
+        }
+        board.clearCellAtUnchecked(cell);
+        return FAILED;
+    }
+
+    // Turns each untried candidate of cell into a subtask on its own copy of the board.
+    private void splitRemaining(int cell, long candidates, List<BudgetedSearchTask> remainingWork) {
+        while (candidates != 0) {
+            int numToTry = Long.numberOfTrailingZeros(candidates) + 1;
+            candidates &= candidates - 1;
+
+            SudokuBoard childBoard = board.clone();
+            childBoard.setValueAtUnchecked(cell, numToTry);
+            remainingWork.add(child(childBoard));
+        }
+    }
+
+    private BudgetedSearchTask child(SudokuBoard childBoard) {
+        return new BudgetedSearchTask(childBoard, solution, stop, cellSelection, nodeBudget);
+    }
+}
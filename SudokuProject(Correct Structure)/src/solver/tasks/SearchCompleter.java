@@ -0,0 +1,183 @@
+package solver.tasks;
+
+import model.SudokuBoard;
+import solver.CancellationToken;
+import solver.CellSelectionStrategy;
+import solver.PhaseTimer;
+import solver.SearchStatistics;
+import solver.SequentialSudokuSolver;
+import solver.SplitPolicy;
+
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Parallel search task that never blocks in {@code join()}.
+ *
+ * At a split point the task forks one child per extra candidate and keeps
+ * descending into the first candidate itself. Children report back through
+ * the pending count ({@link #tryComplete()}) instead of being joined. The first
+ * task to complete the board publishes it through the shared reference,
+ * cancels the shared stop token and completes the root straight away, so the
+ * caller wakes up at once while the outstanding children notice the token and
+ * drain on their own. The stop token is also how a caller's timeout reaches
+ * the workers.
+ *
+ * Each task counts its nodes, backtracks, forks and sequential CPU time into
+ * statistics of its own and adds them to the shared root statistics when it
+ * finishes; depths are placements below the root board.
+ */
+public class SearchCompleter extends CountedCompleter<SudokuBoard> {
+
+    private final SudokuBoard board;
+    private final int depth;
+    private final AtomicReference<SudokuBoard> solution;
+    private final CancellationToken stop;
+    private final SplitPolicy splitPolicy;
+    private final CellSelectionStrategy cellSelection;
+    private final SequentialSudokuSolver sequentialSolver;
+    private final SearchStatistics statistics;
+    private final int rootEmptyCells;
+
+    /**
+     * Creates a root task. {@code stop} should be a token of its own (typically a
+     * child of the caller's token), since the task cancels it once it has a solution.
+     */
+    public SearchCompleter(SudokuBoard board,
+                           AtomicReference<SudokuBoard> solution,
+                           CancellationToken stop,
+                           SplitPolicy splitPolicy,
+                           CellSelectionStrategy cellSelection) {
+        this(board, solution, stop, splitPolicy, cellSelection, new SearchStatistics());
+    }
+
+    /**
+     * Creates a root task whose search counters are added into {@code statistics} as
+     * its tasks finish. Read it while holding its monitor: the root completes as soon
+     * as a solution is published, and tasks still winding down may be adding to it.
+     */
+    public SearchCompleter(SudokuBoard board,
+                           AtomicReference<SudokuBoard> solution,
+                           CancellationToken stop,
+                           SplitPolicy splitPolicy,
+                           CellSelectionStrategy cellSelection,
+                           SearchStatistics statistics) {
+        this(null, board, 0, solution, stop, splitPolicy, cellSelection, new SequentialSudokuSolver(cellSelection),
+                statistics, board.getEmptyCellCount());
+    }
+
+    private SearchCompleter(SearchCompleter parent,
+                            SudokuBoard board,
+                            int depth,
+                            AtomicReference<SudokuBoard> solution,
+                            CancellationToken stop,
+                            SplitPolicy splitPolicy,
+                            CellSelectionStrategy cellSelection,
+                            SequentialSudokuSolver sequentialSolver,
+                            SearchStatistics statistics,
+                            int rootEmptyCells) {
+        super(parent);
+        this.board = board;
+        this.depth = depth;
+        this.solution = solution;
+        this.stop = stop;
+        this.splitPolicy = splitPolicy;
+        this.cellSelection = cellSelection;
+        this.sequentialSolver = sequentialSolver;
+        this.statistics = statistics;
+        this.rootEmptyCells = rootEmptyCells;
+    }
+
+    @Override
+    public void compute() {
+        SearchStatistics local = new SearchStatistics();
+        boolean published = false;
+        try {
+            published = search(local);
+        } finally {
+            synchronized (statistics) {
+                statistics.add(local, 0);
+            }
+        }
+        // Completed only now, so that the caller sees the counters of the winning task.
+        if (published) {
+            quietlyCompleteRoot();
+        }
+        tryComplete();
+    }
+
+    /**
+     * Searches below this task's board.
+     * @return true if this task published the solution
+     */
+    private boolean search(SearchStatistics local) {
+        int currentDepth = depth;
+
+        while (!stop.isCancelled()) {
+            int cell = cellSelection.selectCell(board);
+            if (cell < 0) {
+                local.recordNode(depthOf(board));
+                return publish(board);
+            }
+
+            long candidates = board.candidatesMaskAtUnchecked(cell);
+            if (candidates == 0) {
+                local.recordNode(depthOf(board));
+                return false; // dead end
+            }
+            if ((candidates & (candidates - 1)) == 0) {
+                local.recordNode(depthOf(board));
+                board.setValueAtUnchecked(cell, Long.numberOfTrailingZeros(candidates) + 1);
+                continue; // forced cell, not a choice point
+            }
+
+            if (!splitPolicy.shouldSplit(board, currentDepth, Long.bitCount(candidates))) {
+                // The sequential search counts this node itself.
+                SearchStatistics leafStatistics = new SearchStatistics();
+                int leafDepth = depthOf(board);
+                long cpuStart = PhaseTimer.currentThreadCpuTime();
+                boolean published = sequentialSolver.solve(board, leafStatistics, stop) && publish(board);
+                leafStatistics.recordCpuTime(PhaseTimer.currentThreadCpuTime() - cpuStart);
+                local.add(leafStatistics, leafDepth);
+                return published;
+            }
+
+            // Fork the other candidates on copies of the board and keep the first one here.
+            local.recordNode(depthOf(board));
+            int first = Long.numberOfTrailingZeros(candidates) + 1;
+            candidates &= candidates - 1;
+            local.recordForks(Long.bitCount(candidates));
+            while (candidates != 0) {
+                int digit = Long.numberOfTrailingZeros(candidates) + 1;
+                candidates &= candidates - 1;
+
+                SudokuBoard childBoard = board.clone();
+                childBoard.setValueAtUnchecked(cell, digit);
+                addToPendingCount(1);
+                new SearchCompleter(this, childBoard, currentDepth + 1, solution, stop,
+                        splitPolicy, cellSelection, sequentialSolver, statistics, rootEmptyCells).fork();
+            }
+            board.setValueAtUnchecked(cell, first);
+            currentDepth++;
+        }
+        return false;
+    }
+
+    // Placements made between the root board and the given task board.
+    private int depthOf(SudokuBoard board) {
+        return rootEmptyCells - board.getEmptyCellCount();
+    }
+
+    @Override
+    public SudokuBoard getRawResult() {
+        return solution.get();
+    }
+
+    private boolean publish(SudokuBoard solved) {
+        if (solution.compareAndSet(null, solved)) {
+            stop.cancel();
+            return true;
+        }
+        return false;
+    }
+}
@@ -1,28 +1,116 @@
 package solver.tasks;
 
 import model.SudokuBoard;
+import solver.CellSelectionStrategy;
+import solver.MinimumRemainingValuesStrategy;
+import solver.PhaseTimer;
+import solver.SearchStatistics;
+import solver.SearchTrail;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Searches the subtree below its board, branching in parallel for the first
+ * {@code parallelDepthRemaining} levels and sequentially below that.
+ *
+ * The search runs on one board in place and backs out of branches through a
+ * {@link SearchTrail}. At a split only the candidates after the first are forked,
+ * sharing one read-only snapshot of the board; a forked task copies it when a
+ * thief runs it, and one still in our deque is taken back with {@code tryUnfork}
+ * and searched on our own board. Boards are only copied for subtrees that
+ * another worker actually took.
+ */
 public class SolveTask extends RecursiveTask<SudokuBoard> {
 
-    private final SudokuBoard board;
+    // Root task: the board to search. Forked branch: null until the task runs.
+    private SudokuBoard board;
+
+    // Forked branch: the board at the split point and the placement that starts the branch.
+    private final SudokuBoard snapshot;
+    private final int branchCell;
+    private final int branchDigit;
+
     private final int parallelDepthRemaining;
     private final AtomicBoolean solutionFound;
+    private final CellSelectionStrategy cellSelection;
+
+    // Shared by all tasks of a solve; each task counts locally and adds its counters once, when it ends.
+    private final SearchStatistics statistics;
+    private final int rootEmptyCells;
 
     public SolveTask(SudokuBoard board,
                      int parallelDepthRemaining,
                      AtomicBoolean solutionFound) {
+        this(board, parallelDepthRemaining, solutionFound, new MinimumRemainingValuesStrategy());
+    }
+
+    public SolveTask(SudokuBoard board,
+                     int parallelDepthRemaining,
+                     AtomicBoolean solutionFound,
+                     CellSelectionStrategy cellSelection) {
+        this(board, parallelDepthRemaining, solutionFound, cellSelection, new SearchStatistics());
+    }
+
+    /**
+     * Creates a root task whose search counters (nodes, backtracks, depth, forks and
+     * worker CPU time) are added into {@code statistics} as its tasks finish. Read it
+     * while holding its monitor, since tasks still winding down may be adding to it.
+     */
+    public SolveTask(SudokuBoard board,
+                     int parallelDepthRemaining,
+                     AtomicBoolean solutionFound,
+                     CellSelectionStrategy cellSelection,
+                     SearchStatistics statistics) {
+        this(board, null, -1, 0, parallelDepthRemaining, solutionFound, cellSelection, statistics,
+             board.getEmptyCellCount());
+    }
+
+    private SolveTask(SudokuBoard board,
+                      SudokuBoard snapshot,
+                      int branchCell,
+                      int branchDigit,
+                      int parallelDepthRemaining,
+                      AtomicBoolean solutionFound,
+                      CellSelectionStrategy cellSelection,
+                      SearchStatistics statistics,
+                      int rootEmptyCells) {
         this.board = board;
+        this.snapshot = snapshot;
+        this.branchCell = branchCell;
+        this.branchDigit = branchDigit;
         this.parallelDepthRemaining = parallelDepthRemaining;
         this.solutionFound = solutionFound;
+        this.cellSelection = cellSelection;
+        this.statistics = statistics;
+        this.rootEmptyCells = rootEmptyCells;
     }
 
     @Override
     protected SudokuBoard compute() {
+        SearchStatistics local = new SearchStatistics();
+        try {
+            if (board == null) {
+                if (solutionFound.get()) {
+                    return null;
+                }
+                board = snapshot.clone();
+                board.setValueAtUnchecked(branchCell, branchDigit);
+            }
+            return search(board, new SearchTrail(board), parallelDepthRemaining, local);
+        } finally {
+            synchronized (statistics) {
+                statistics.add(local, 0);
+            }
+        }
+    }
+
+    /**
+     * Searches below {@code board}, recording placements on {@code trail}.
+     * @return the solved board, which must not be touched again; or null, in which
+     *         case the caller undoes the trail
+     */
+    private SudokuBoard search(SudokuBoard board, SearchTrail trail, int depthRemaining, SearchStatistics local) {
         // If another task already found a solution, stop early.
         if (solutionFound.get()) {
             return null;
@@ -34,28 +122,19 @@ public class SolveTask extends RecursiveTask<SudokuBoard> {
             return board;
         }
 
-        // Find next empty cell (row, col). Do not rely on CellPosition to avoid coupling.
-        int row = -1;
-        int col = -1;
-        outer:
-        for (int r = 0; r < SudokuBoard.SIZE; r++) {
-            for (int c = 0; c < SudokuBoard.SIZE; c++) {
-                if (board.isCellEmpty(r, c)) {
-                    row = r;
-                    col = c;
-                    break outer;
-                }
-            }
-        }
+        // Pick the next empty cell to branch on (flat index).
+        int cell = cellSelection.selectCell(board);
 
         // No empty cell found: either solved (caught above) or invalid.
-        if (row == -1) {
+        if (cell == -1) {
             return null;
         }
 
         // If we've exhausted the parallel depth budget, solve sequentially from here.
-        if (parallelDepthRemaining <= 0) {
-            boolean solved = solveSequential(board);
+        if (depthRemaining <= 0) {
+            long cpuStart = PhaseTimer.currentThreadCpuTime();
+            boolean solved = solveSequential(board, local, rootEmptyCells - board.getEmptyCellCount());
+            local.recordCpuTime(PhaseTimer.currentThreadCpuTime() - cpuStart);
             if (solved) {
                 solutionFound.set(true);
                 return board;
@@ -64,46 +143,52 @@ public class SolveTask extends RecursiveTask<SudokuBoard> {
         }
 
         // Otherwise, branch on all valid candidates in parallel.
-        List<SolveTask> subtasks = new ArrayList<>();
-
-        for (int candidate = 1; candidate <= SudokuBoard.SIZE; candidate++) {
-            if (!board.isValidMove(row, col, candidate)) {
-                continue;
-            }
-
-            SudokuBoard childBoard = board.clone();
-            childBoard.setValue(row, col, candidate);
+        local.recordNode(rootEmptyCells - board.getEmptyCellCount());
 
-            SolveTask task = new SolveTask(
-                    childBoard,
-                    parallelDepthRemaining - 1,
-                    solutionFound
-            );
-            subtasks.add(task);
-        }
-
-        if (subtasks.isEmpty()) {
+        long candidates = board.candidatesMaskAtUnchecked(cell);
+        if (candidates == 0) {
             return null; // dead end
         }
-
-        // Fork all but the first task for better work-stealing behavior.
-        for (int i = 1; i < subtasks.size(); i++) {
-            subtasks.get(i).fork();
+        int first = Long.numberOfTrailingZeros(candidates) + 1;
+        candidates &= candidates - 1;
+
+        // Fork all but the first candidate for better work-stealing behavior.
+        SolveTask[] siblings = new SolveTask[Long.bitCount(candidates)];
+        if (siblings.length > 0) {
+            SudokuBoard shared = board.clone();
+            for (int i = 0; i < siblings.length; i++) {
+                int candidate = Long.numberOfTrailingZeros(candidates) + 1;
+                candidates &= candidates - 1;
+                siblings[i] = new SolveTask(null, shared, cell, candidate, depthRemaining - 1,
+                        solutionFound, cellSelection, statistics, rootEmptyCells);
+            }
+            for (int i = siblings.length - 1; i >= 0; i--) {
+                siblings[i].fork();
+            }
+            local.recordForks(siblings.length);
         }
 
-        // Compute first task in current thread.
-        SudokuBoard solution = subtasks.get(0).compute();
+        // Compute the first candidate in the current thread, on this board.
+        int mark = trail.size();
+        SudokuBoard solution = searchBranch(board, trail, cell, first, depthRemaining, local);
         if (solution != null) {
             return solution;
         }
-
-        // Join others until we find a non-null solution or all fail.
-        for (int i = 1; i < subtasks.size(); i++) {
-            if (solutionFound.get()) {
-                // A solution was found elsewhere; we can stop checking.
-                break;
+        trail.undoTo(board, mark);
+
+        // Then the others: here if nobody stole them, otherwise by joining. Once the flag is
+        // set the losing siblings return at their next check, but the one holding the
+        // solution must still be joined or its board would be lost.
+        for (SolveTask sibling : siblings) {
+            SudokuBoard result;
+            if (sibling.tryUnfork()) {
+                result = searchBranch(board, trail, cell, sibling.branchDigit, depthRemaining, local);
+                if (result == null) {
+                    trail.undoTo(board, mark);
+                }
+            } else {
+                result = sibling.join();
             }
-            SudokuBoard result = subtasks.get(i).join();
             if (result != null) {
                 return result;
             }
@@ -112,7 +197,15 @@ public class SolveTask extends RecursiveTask<SudokuBoard> {
         return null;
     }
 
-    private boolean solveSequential(SudokuBoard b) {
+    private SudokuBoard searchBranch(SudokuBoard board, SearchTrail trail, int cell, int digit,
+                                     int depthRemaining, SearchStatistics local) {
+        board.setValueAtUnchecked(cell, digit);
+        trail.push(cell);
+        return search(board, trail, depthRemaining - 1, local);
+    }
+
+    private boolean solveSequential(SudokuBoard b, SearchStatistics local, int depth) {
+        local.recordNode(depth);
         if (solutionFound.get()) {
             return false;
         }
@@ -122,38 +215,29 @@ public class SolveTask extends RecursiveTask<SudokuBoard> {
             return true;
         }
 
-        int row = -1;
-        int col = -1;
-        outer:
-        for (int r = 0; r < SudokuBoard.SIZE; r++) {
-            for (int c = 0; c < SudokuBoard.SIZE; c++) {
-                if (b.isCellEmpty(r, c)) {
-                    row = r;
-                    col = c;
-                    break outer;
-                }
-            }
-        }
+        int cell = cellSelection.selectCell(b);
 
-        if (row == -1) {
+        if (cell == -1) {
             return false;
         }
 
-        for (int candidate = 1; candidate <= SudokuBoard.SIZE; candidate++) {
+        long candidates = b.candidatesMaskAtUnchecked(cell);
+        while (candidates != 0) {
+            int candidate = Long.numberOfTrailingZeros(candidates) + 1;
+            candidates &= candidates - 1;
+
             if (solutionFound.get()) {
                 return false;
             }
-            if (!b.isValidMove(row, col, candidate)) {
-                continue;
-            }
-            b.setValue(row, col, candidate);
+            b.setValueAtUnchecked(cell, candidate);
 
-            if (solveSequential(b)) {
+            if (solveSequential(b, local, depth + 1)) {
                 return true;
             }
 
             // backtrack
-            b.clearCell(row, col);
+            b.clearCellAtUnchecked(cell);
+            local.recordBacktrack();
         }
 
         return false;